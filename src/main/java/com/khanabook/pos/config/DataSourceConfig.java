@@ -0,0 +1,15 @@
+package com.khanabook.pos.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Static so the post-processor is registered before the DataSource it wraps is created
+    @Bean
+    static DataSourcePostProcessor dataSourcePostProcessor(Environment environment) {
+        return new DataSourcePostProcessor(environment);
+    }
+}
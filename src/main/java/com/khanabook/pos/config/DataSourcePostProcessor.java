@@ -0,0 +1,120 @@
+package com.khanabook.pos.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps the Hikari pool Spring Boot builds from {@code spring.datasource.*}. Optionally each pool
+ * gets a {@link ConnectionPermitDataSource}. When {@code datasource.replica.urls} is set, replica
+ * pools are built from the primary's settings and everything is fronted by a
+ * {@link ReplicaRoutingDataSource} behind a {@link LazyConnectionDataSourceProxy}. Pools and
+ * threads created here are closed with the application context.
+ */
+@Slf4j
+class DataSourcePostProcessor implements DestructionAwareBeanPostProcessor {
+
+    private final Environment environment;
+    private final Map<Object, List<AutoCloseable>> closeables = new IdentityHashMap<>();
+
+    DataSourcePostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource primary)) {
+            return bean;
+        }
+        List<String> replicaUrls = Arrays.stream(environment.getProperty("datasource.replica.urls", "").split(","))
+                .map(String::trim).filter(StringUtils::hasText).toList();
+        boolean permits = environment.getProperty("datasource.connection-permits.enabled", Boolean.class, false);
+        if (replicaUrls.isEmpty() && !permits) {
+            return bean;
+        }
+
+        List<AutoCloseable> resources = new ArrayList<>(List.of(primary));
+        DataSource result = withPermits(primary, permits);
+
+        if (!replicaUrls.isEmpty()) {
+            List<DataSource> replicas = new ArrayList<>();
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                HikariDataSource replica = replicaPool(primary, replicaUrls.get(i), i + 1);
+                resources.add(replica);
+                replicas.add(withPermits(replica, permits));
+            }
+            ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(result, replicas,
+                    Duration.ofMillis(environment.getProperty("datasource.replica.max-lag-ms", Long.class, 5000L)),
+                    environment.getProperty("datasource.replica.lag-query", "SHOW REPLICA STATUS"),
+                    Duration.ofMillis(environment.getProperty("datasource.replica.health-check-ms", Long.class, 2000L)));
+            resources.add(routing);
+            result = new LazyConnectionDataSourceProxy(routing);
+            log.info("Routing read-only transactions for '{}' across {} replica(s)", beanName, replicas.size());
+        }
+
+        synchronized (closeables) {
+            closeables.put(result, resources);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+        synchronized (closeables) {
+            return closeables.containsKey(bean);
+        }
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) {
+        List<AutoCloseable> resources;
+        synchronized (closeables) {
+            resources = closeables.remove(bean);
+        }
+        if (resources == null) {
+            return;
+        }
+        // Routing first so the health checker stops before the pools it polls go away
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            try {
+                resources.get(i).close();
+            } catch (Exception e) {
+                log.warn("Failed to close {}: {}", resources.get(i), e.getMessage());
+            }
+        }
+    }
+
+    private DataSource withPermits(HikariDataSource pool, boolean enabled) {
+        if (!enabled) {
+            return pool;
+        }
+        log.info("Capping concurrent connection checkouts for '{}' at {}", pool.getPoolName(),
+                pool.getMaximumPoolSize());
+        return new ConnectionPermitDataSource(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+    }
+
+    private HikariDataSource replicaPool(HikariDataSource primary, String url, int index) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setJdbcUrl(url);
+        config.setPoolName((primary.getPoolName() != null ? primary.getPoolName() : "primary") + "-replica-" + index);
+        config.setUsername(environment.getProperty("datasource.replica.username", primary.getUsername()));
+        config.setPassword(environment.getProperty("datasource.replica.password", primary.getPassword()));
+        config.setReadOnly(true);
+        // A replica that is down at startup must not stop the application; the health check skips it
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+}
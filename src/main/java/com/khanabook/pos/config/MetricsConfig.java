@@ -0,0 +1,65 @@
+package com.khanabook.pos.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Pool metrics for every pool behind the application DataSource. Spring Boot's own Hikari
+     * binding cannot see through the replica router, so replica pools (and the primary, when
+     * routing) are bound here; wait time is {@code hikaricp.connections.acquire}, plus
+     * {@code datasource.permits.wait} when connection permits queue callers in front of Hikari.
+     */
+    @Bean
+    MeterBinder dataSourcePoolMetrics(DataSource dataSource) {
+        return registry -> {
+            ReplicaRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+            List<DataSource> pools = routing != null ? routing.targets() : List.of(dataSource);
+            for (DataSource pool : pools) {
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(pool, HikariConfigMXBean.class,
+                        HikariDataSource.class);
+                if (hikari == null) {
+                    continue;
+                }
+                if (hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+                    hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+                ConnectionPermitDataSource permits = DataSourceUnwrapper.unwrap(pool, ConnectionPermitDataSource.class);
+                if (permits != null) {
+                    bindPermits(registry, hikari.getPoolName(), permits);
+                }
+            }
+            if (routing != null) {
+                Gauge.builder("datasource.replicas.healthy", routing, ReplicaRoutingDataSource::healthyReplicas)
+                        .description("Replicas currently taking read-only traffic")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static void bindPermits(MeterRegistry registry, String pool, ConnectionPermitDataSource permits) {
+        FunctionTimer.builder("datasource.permits.wait", permits, ConnectionPermitDataSource::acquisitions,
+                        ConnectionPermitDataSource::waitNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent queued for a connection permit")
+                .tag("pool", pool)
+                .register(registry);
+        Gauge.builder("datasource.permits.queued", permits, ConnectionPermitDataSource::queuedCallers)
+                .description("Callers waiting for a connection permit")
+                .tag("pool", pool)
+                .register(registry);
+    }
+}
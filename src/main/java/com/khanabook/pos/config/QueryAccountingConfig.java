@@ -0,0 +1,40 @@
+package com.khanabook.pos.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request query accounting for development and tests. Off unless
+ * {@code query-accounting.enabled=true}, so production neither inspects statements nor buffers
+ * responses.
+ */
+@Configuration
+@ConditionalOnProperty(name = "query-accounting.enabled", havingValue = "true")
+public class QueryAccountingConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer queryAccountingHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+        };
+    }
+
+    // Ahead of Spring Security, so the user lookup behind each authenticated request is counted too
+    @Bean
+    FilterRegistrationBean<QueryAccountingFilter> queryAccountingFilter(
+            @Value("${query-accounting.repeat-threshold:5}") int repeatThreshold,
+            @Value("${query-accounting.budgets:}") String budgets,
+            @Value("${query-accounting.fail-on-budget:false}") boolean failOnBudget) {
+        FilterRegistrationBean<QueryAccountingFilter> registration = new FilterRegistrationBean<>(
+                new QueryAccountingFilter(repeatThreshold, budgets, failOnBudget));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
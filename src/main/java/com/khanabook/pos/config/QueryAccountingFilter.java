@@ -0,0 +1,115 @@
+package com.khanabook.pos.config;
+
+import com.khanabook.pos.util.QueryLedger;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Opens a {@link QueryLedger} per request and reports it in {@code X-Query-Count} and
+ * {@code X-Query-Time} (milliseconds of JDBC execution). The body is buffered so the headers can
+ * follow it, which is why this is a development aid and event streams are passed straight
+ * through.
+ * <p>
+ * Budgets are {@code METHOD /ant/pattern=maxQueries} pairs; the first match applies. Going over
+ * one is logged, or with {@code failOnBudget} replaces the response with a 500 so tests fail.
+ */
+@Slf4j
+class QueryAccountingFilter extends OncePerRequestFilter {
+
+    private final int repeatThreshold;
+    private final List<Budget> budgets;
+    private final boolean failOnBudget;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    QueryAccountingFilter(int repeatThreshold, String budgets, boolean failOnBudget) {
+        this.repeatThreshold = repeatThreshold;
+        this.budgets = parseBudgets(budgets);
+        this.failOnBudget = failOnBudget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+        QueryLedger ledger = QueryLedger.open();
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            QueryLedger.close();
+        }
+
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        ledger.repeatedSelects(repeatThreshold).forEach((sql, times) ->
+                log.warn("Suspected N+1 on {}: {} runs of {}", endpoint, times, sql));
+
+        Budget budget = budgetFor(request);
+        if (budget != null && ledger.count() > budget.maxQueries()) {
+            String message = endpoint + " ran " + ledger.count() + " queries, over its budget of "
+                    + budget.maxQueries() + " (" + budget.rule() + ")";
+            log.warn("Query budget exceeded: {}", message);
+            if (failOnBudget) {
+                wrapped.resetBuffer();
+                wrapped.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                wrapped.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                wrapped.getWriter().write("Query budget exceeded: " + message);
+                wrapped.getWriter().flush();
+            }
+        }
+
+        wrapped.setHeader("X-Query-Count", Integer.toString(ledger.count()));
+        wrapped.setHeader("X-Query-Time",
+                String.format(Locale.ROOT, "%.3f", ledger.executionTime().toNanos() / 1_000_000.0));
+        wrapped.copyBodyToResponse();
+    }
+
+    private Budget budgetFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Budget budget : budgets) {
+            if (budget.method().equalsIgnoreCase(request.getMethod()) && pathMatcher.match(budget.pattern(), path)) {
+                return budget;
+            }
+        }
+        return null;
+    }
+
+    private static List<Budget> parseBudgets(String spec) {
+        List<Budget> budgets = new ArrayList<>();
+        for (String rule : StringUtils.commaDelimitedListToStringArray(spec)) {
+            rule = rule.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            int space = rule.indexOf(' ');
+            int equals = rule.lastIndexOf('=');
+            if (space < 0 || equals < space) {
+                throw new IllegalArgumentException("Query budget must look like 'GET /api/orders/**=6': " + rule);
+            }
+            budgets.add(new Budget(rule, rule.substring(0, space), rule.substring(space + 1, equals).trim(),
+                    Integer.parseInt(rule.substring(equals + 1).trim())));
+        }
+        return budgets;
+    }
+
+    private record Budget(String rule, String method, String pattern, int maxQueries) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.khanabook.pos.config;
+
+import com.khanabook.pos.util.QueryLedger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Sees every SQL string Hibernate prepares; the statement itself is passed through unchanged
+class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryLedger ledger = QueryLedger.current();
+        if (ledger != null) {
+            ledger.statement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,41 @@
+package com.khanabook.pos.config;
+
+import com.khanabook.pos.util.QueryLedger;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds JDBC execution time to the thread's {@link QueryLedger}. Hibernate creates one per session
+ * from {@code hibernate.session.events.auto}, hence public with a no-arg constructor.
+ */
+public class QueryTimingListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        QueryLedger ledger = QueryLedger.current();
+        if (ledger != null && start != 0) {
+            ledger.executed(System.nanoTime() - start);
+        }
+    }
+}
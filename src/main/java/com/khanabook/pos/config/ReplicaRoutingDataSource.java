@@ -0,0 +1,210 @@
+package com.khanabook.pos.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to a healthy replica, round
+ * robin, and everything else to the primary. Must sit behind a
+ * {@code LazyConnectionDataSourceProxy} so the connection is only fetched once the transaction's
+ * read-only flag is known.
+ * <p>
+ * A replica is skipped while it is unreachable or lags by more than {@code maxLag}, and a failed
+ * checkout falls back to the primary. Without a lag query no replica is put in rotation at all,
+ * since a replica that answers pings may still be far behind. An authenticated caller that
+ * committed a write reads from the primary for the next {@code maxLag}: any replica still in
+ * rotation is at most that far behind, so it has the write by then. Anonymous callers are not tracked, since nothing identifies the same
+ * caller across requests (a client address is shared by every device behind the same NAT).
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Cache<String, Boolean> recentWriters;
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag, String lagQuery,
+            Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(maxLag).build();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (StringUtils.hasText(lagQuery)) {
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            log.warn("datasource.replica.lag-query is empty; replica lag cannot be measured, so all reads stay on the primary");
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String caller = callerKey();
+            if (caller == null || recentWriters.getIfPresent(caller) == null) {
+                Connection connection = replicaConnection();
+                if (connection != null) {
+                    return connection;
+                }
+            }
+            return primary.getConnection();
+        }
+        rememberWriter();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Explicit credentials are for the primary's account; replicas only know the configured ones
+        return primary.getConnection(username, password);
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try {
+                healthy = replica.check();
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Replica health check failed: {}", e.getMessage());
+                healthy = false;
+            }
+            if (replica.healthy != healthy) {
+                if (healthy) {
+                    log.info("Replica {} is back in rotation", replica.dataSource);
+                } else {
+                    log.warn("Replica {} taken out of rotation (lag {}s)", replica.dataSource, replica.lagSeconds);
+                }
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    public long healthyReplicas() {
+        return replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    // The primary first, then each replica
+    public List<DataSource> targets() {
+        List<DataSource> targets = new ArrayList<>(replicas.size() + 1);
+        targets.add(primary);
+        replicas.forEach(replica -> targets.add(replica.dataSource));
+        return targets;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+
+    private Connection replicaConnection() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Out until the next health check brings it back
+                replica.healthy = false;
+                log.warn("Replica {} failed a checkout, reading from the primary: {}", replica.dataSource,
+                        e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    // Only committed writes count; a rolled-back transaction left nothing to read back
+    private void rememberWriter() {
+        String caller = callerKey();
+        if (caller != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(caller, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static String callerKey() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return auth.getName();
+        }
+        return null;
+    }
+
+    private final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile Long lagSeconds;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean check() throws SQLException {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!StringUtils.hasText(lagQuery)) {
+                    // A replica that only answers pings may be hours behind; never route to it blind
+                    lagSeconds = null;
+                    return false;
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet rows = statement.executeQuery(lagQuery)) {
+                    lagSeconds = rows.next() ? readLag(rows) : null;
+                }
+                // No row or a NULL lag means replication is not running
+                return lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            }
+        }
+
+        // MySQL's SHOW REPLICA STATUS names the column; simpler lag queries return it first
+        private Long readLag(ResultSet rows) throws SQLException {
+            ResultSetMetaData meta = rows.getMetaData();
+            int column = 1;
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                if ("Seconds_Behind_Source".equalsIgnoreCase(meta.getColumnLabel(i))) {
+                    column = i;
+                }
+            }
+            long lag = rows.getLong(column);
+            return rows.wasNull() ? null : lag;
+        }
+    }
+}
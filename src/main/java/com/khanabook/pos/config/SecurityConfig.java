@@ -1,24 +1,39 @@
 package com.khanabook.pos.config;
 
+import com.khanabook.pos.security.BoundedPasswordEncoder;
 import com.khanabook.pos.security.JwtAuthEntryPoint;
 import com.khanabook.pos.security.JwtRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -26,21 +41,30 @@ import org.springframework.web.cors.CorsConfigurationSource;
 public class SecurityConfig {
 
 	private final UserDetailsService userDetailsService;
+	private final UserDetailsPasswordService userDetailsPasswordService;
 	private final JwtRequestFilter jwtRequestFilter;
 	private final JwtAuthEntryPoint jwtAuthEntryPoint;
 	private final CorsConfigurationSource corsConfigurationSource;
 
+	// Hashes weaker than auth.bcrypt-strength are re-encoded on the user's next successful login
 	@Bean
-	DaoAuthenticationProvider authenticationProvider() {
+	DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
 		DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 		authProvider.setUserDetailsService(userDetailsService);
-		authProvider.setPasswordEncoder(passwordEncoder());
+		authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
+		authProvider.setPasswordEncoder(passwordEncoder);
 		return authProvider;
 	}
 
 	@Bean
-	PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	PasswordEncoder passwordEncoder(@Value("${auth.bcrypt-strength:10}") int strength,
+			@Value("${auth.password-hashing.threads:0}") int threads,
+			@Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+			@Value("${auth.password-hashing.max-wait-ms:2000}") long maxWaitMs, MeterRegistry meterRegistry) {
+		// Half the cores by default, leaving the rest to order traffic during a shift-change burst
+		int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, maxWaitMs,
+				meterRegistry);
 	}
 
 	@Bean
@@ -48,12 +72,42 @@ public class SecurityConfig {
 		return authConfig.getAuthenticationManager();
 	}
 
+	// Prometheus scrapes with basic auth as its own account; no scrape password means no access at all
+	@Bean
+	@Order(1)
+	SecurityFilterChain metricsFilterChain(HttpSecurity http,
+			@Value("${metrics.scrape.username:prometheus}") String username,
+			@Value("${metrics.scrape.password:}") String password) throws Exception {
+		List<UserDetails> scrapers = StringUtils.hasText(password)
+				? List.of(User.withUsername(username)
+						.password(password.startsWith("{") ? password : "{noop}" + password)
+						.roles("METRICS")
+						.build())
+				: List.of();
+		DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider();
+		scrapeProvider.setUserDetailsService(new InMemoryUserDetailsManager(scrapers));
+		scrapeProvider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+		http.securityMatcher("/actuator/prometheus").csrf(csrf -> csrf.disable())
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+				.authenticationManager(new ProviderManager(scrapeProvider))
+				.httpBasic(Customizer.withDefaults())
+				.authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"));
+
+		return http.build();
+	}
+
 	@Bean
 	SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 		http.cors(cors -> cors.configurationSource(corsConfigurationSource)).csrf(csrf -> csrf.disable())
 				.exceptionHandling(exception -> exception.authenticationEntryPoint(jwtAuthEntryPoint))
 				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-				.authorizeHttpRequests(auth -> auth.requestMatchers("/api/auth/**").permitAll()
+				.authorizeHttpRequests(auth -> auth
+						// SSE streams complete on an async dispatch; the original request was already authorized
+						.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+						.requestMatchers("/api/auth/**").permitAll()
+						// Probed by the load balancer without a JWT; /actuator/prometheus has its own chain above
+						.requestMatchers("/actuator/health").permitAll()
 						.requestMatchers("/api/orders/qr").permitAll().requestMatchers("/swagger-ui/**", "/api-docs/**")
 						.permitAll().requestMatchers("/api/kitchen/**").hasAnyRole("CHEF", "ADMIN")
 						.requestMatchers("/api/bookings/**").hasAnyRole("WAITER", "ADMIN", "MANAGER").anyRequest()
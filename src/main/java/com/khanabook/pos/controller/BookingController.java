@@ -1,6 +1,7 @@
 package com.khanabook.pos.controller;
 
 import com.khanabook.pos.dto.request.BookingRequest;
+import com.khanabook.pos.dto.response.CursorPage;
 import com.khanabook.pos.model.BookingStatus;
 import com.khanabook.pos.model.TableBooking;
 import com.khanabook.pos.service.BookingService;
@@ -46,6 +47,14 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getAllBookings(pageable));
     }
 
+    @GetMapping("/cursor") @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
+    @Operation(summary = "Get bookings newest first, paged by continuation cursor")
+    public ResponseEntity<CursorPage<TableBooking>> getBookingsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookingService.getBookingsPage(cursor, size));
+    }
+
     @GetMapping("/status/{status}") @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
     @Operation(summary = "Get bookings by status with pagination")
     public ResponseEntity<Page<TableBooking>> getBookingsByStatus(@PathVariable BookingStatus status, Pageable pageable) {
@@ -1,15 +1,22 @@
 package com.khanabook.pos.controller;
 
+import com.khanabook.pos.dto.request.OrderIdsRequest;
+import com.khanabook.pos.dto.response.BulkStatusResponse;
+import com.khanabook.pos.dto.response.KitchenBoardCheck;
 import com.khanabook.pos.dto.response.KitchenOrderResponse;
-import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.dto.response.KptIndexStats;
+import com.khanabook.pos.dto.response.OrderResponse;
 import com.khanabook.pos.service.KitchenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -33,17 +40,49 @@ public class KitchenController {
         return ResponseEntity.ok(kitchenService.getActiveOrders());
     }
 
+    @PostMapping("/board/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Compare the in-memory kitchen board with the database, optionally reloading it")
+    public ResponseEntity<KitchenBoardCheck> checkBoard(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(kitchenService.checkBoard(repair));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream kitchen order events (SSE); send Last-Event-ID to resume")
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return kitchenService.subscribe(lastEventId);
+    }
+
     @PutMapping("/orders/{id}/ready")
     @Operation(summary = "Mark order as ready")
-    public ResponseEntity<CustomerOrder> markReady(@PathVariable Long id) {
+    public ResponseEntity<OrderResponse> markReady(@PathVariable Long id) {
         return ResponseEntity.ok(kitchenService.markOrderReady(id));
     }
 
+    @PutMapping("/orders/ready")
+    @Operation(summary = "Mark several orders as ready in one transaction")
+    public ResponseEntity<BulkStatusResponse> markOrdersReady(@Valid @RequestBody OrderIdsRequest request) {
+        return ResponseEntity.ok(kitchenService.markOrdersReady(request.getOrderIds()));
+    }
+
     @PutMapping("/orders/{id}/kpt")
     @Operation(summary = "Update estimated KPT")
-    public ResponseEntity<CustomerOrder> updateKpt(
+    public ResponseEntity<OrderResponse> updateKpt(
             @PathVariable Long id,
             @RequestParam Integer minutes) {
         return ResponseEntity.ok(kitchenService.updateKpt(id, minutes));
     }
+
+    @GetMapping("/kpt-index")
+    @Operation(summary = "Get KPT index size and hit/miss counters")
+    public ResponseEntity<KptIndexStats> getKptIndexStats() {
+        return ResponseEntity.ok(kitchenService.getKptIndexStats());
+    }
+
+    @PostMapping("/kpt-index/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reload KPT index from the database")
+    public ResponseEntity<KptIndexStats> reloadKptIndex() {
+        return ResponseEntity.ok(kitchenService.reloadKptIndex());
+    }
 }
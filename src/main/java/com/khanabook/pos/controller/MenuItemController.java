@@ -2,6 +2,7 @@ package com.khanabook.pos.controller;
 
 import com.khanabook.pos.model.MenuItem;
 import com.khanabook.pos.service.MenuItemService;
+import com.khanabook.pos.util.Money;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +19,7 @@ import java.util.List;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.MediaType;
 import java.io.IOException;
+import java.math.BigDecimal;
 
 @RestController
 @RequestMapping("/api/menu-items")
@@ -73,8 +75,10 @@ public class MenuItemController {
     @Operation(summary = "Create a new menu item with image file")
     public ResponseEntity<MenuItem> createMenuItemWithImage(
             @RequestParam("image") MultipartFile image,
+            @RequestParam("price") BigDecimal price,
             @ModelAttribute MenuItem menuItem) throws IOException {
         menuItem.setImageLob(image.getBytes());
+        menuItem.setPricePaise(Money.toPaise(price));
         return ResponseEntity.status(HttpStatus.CREATED).body(menuItemService.createMenuItem(menuItem));
     }
 
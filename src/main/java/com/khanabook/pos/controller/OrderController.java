@@ -1,9 +1,15 @@
 package com.khanabook.pos.controller;
 
+import com.khanabook.pos.dto.request.BulkStatusRequest;
 import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.request.OrderSyncRequest;
 import com.khanabook.pos.dto.request.QrOrderRequest;
+import com.khanabook.pos.dto.response.BulkStatusResponse;
+import com.khanabook.pos.dto.response.CursorPage;
 import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.dto.response.OrderSyncResponse;
 import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.service.IdempotencyService;
 import com.khanabook.pos.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,6 +23,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
@@ -25,20 +33,35 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
     @Operation(summary = "Create manual order (waiter)")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest request,
+            Principal principal) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(orderService.createOrder(request));
+                .body(idempotencyService.execute("orders:" + principal.getName(), idempotencyKey, request,
+                        () -> orderService.createOrder(request)));
     }
 
     @PostMapping("/qr")
     @Operation(summary = "Create QR-based order (customer)")
-    public ResponseEntity<OrderResponse> createQrOrder(@Valid @RequestBody QrOrderRequest request) {
+    public ResponseEntity<OrderResponse> createQrOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody QrOrderRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(orderService.createQrOrder(request));
+                .body(idempotencyService.execute("qr:" + request.getQrToken(), idempotencyKey, request,
+                        () -> orderService.createQrOrder(request)));
+    }
+
+    @PostMapping("/sync")
+    @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
+    @Operation(summary = "Bulk-sync orders queued offline by POS tablets")
+    public ResponseEntity<OrderSyncResponse> syncOrders(@Valid @RequestBody OrderSyncRequest request) {
+        return ResponseEntity.ok(orderService.syncOrders(request));
     }
 
     @GetMapping("/{id}")
@@ -54,6 +77,25 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders(pageable));
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
+    @Operation(summary = "Get orders newest first, paged by continuation cursor")
+    public ResponseEntity<CursorPage<OrderResponse>> getOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersPage(cursor, size));
+    }
+
+    @GetMapping("/status/{status}/cursor")
+    @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
+    @Operation(summary = "Get orders by status newest first, paged by continuation cursor")
+    public ResponseEntity<CursorPage<OrderResponse>> getOrdersPageByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersPageByStatus(status, cursor, size));
+    }
+
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
     @Operation(summary = "Get orders by status")
@@ -81,6 +123,13 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
     }
 
+    @PutMapping("/status/bulk")
+    @PreAuthorize("hasAnyRole('WAITER', 'CHEF', 'ADMIN')")
+    @Operation(summary = "Move several orders to the same status in one transaction")
+    public ResponseEntity<BulkStatusResponse> updateStatuses(@Valid @RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus()));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('WAITER', 'ADMIN', 'MANAGER')")
     @Operation(summary = "Cancel order")
@@ -91,9 +140,9 @@ public class OrderController {
 
     @PostMapping("/{id}/whatsapp-bill")
     @PreAuthorize("hasAnyRole('CASHIER', 'ADMIN')")
-    @Operation(summary = "Send WhatsApp bill")
+    @Operation(summary = "Queue WhatsApp bill for delivery")
     public ResponseEntity<Void> sendWhatsAppBill(@PathVariable Long id) {
         orderService.sendWhatsAppBill(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().build();
     }
 }
@@ -1,8 +1,9 @@
 package com.khanabook.pos.controller;
 
-import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.dto.response.SalesRecord;
 import com.khanabook.pos.model.OrderType;
 import com.khanabook.pos.service.ReportService;
+import com.khanabook.pos.util.Money;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -26,7 +28,7 @@ public class ReportController {
 
     @GetMapping("/sales")
     @Operation(summary = "Get sales orders between two dates")
-    public ResponseEntity<List<CustomerOrder>> getSalesBetweenDates(
+    public ResponseEntity<List<SalesRecord>> getSalesBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         return ResponseEntity.ok(reportService.getSalesBetweenDates(start, end));
@@ -34,10 +36,10 @@ public class ReportController {
 
     @GetMapping("/revenue")
     @Operation(summary = "Get total revenue between two dates")
-    public ResponseEntity<Double> getTotalRevenueBetweenDates(
+    public ResponseEntity<BigDecimal> getTotalRevenueBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return ResponseEntity.ok(reportService.getTotalRevenueBetweenDates(start, end));
+        return ResponseEntity.ok(Money.toRupees(reportService.getTotalRevenuePaiseBetweenDates(start, end)));
     }
 
     @GetMapping("/order-status-count")
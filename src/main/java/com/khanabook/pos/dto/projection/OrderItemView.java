@@ -0,0 +1,14 @@
+package com.khanabook.pos.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class OrderItemView {
+    private Long orderId;
+    private Long id;
+    private String menuItemName;
+    private Integer quantity;
+    private Long pricePaise;
+    private String specialInstructions;
+}
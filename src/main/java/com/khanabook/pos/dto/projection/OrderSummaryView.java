@@ -0,0 +1,25 @@
+package com.khanabook.pos.dto.projection;
+
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Order row for listings, selected by JPQL constructor expression so no entity is hydrated
+@Data @AllArgsConstructor
+public class OrderSummaryView {
+    private Long id;
+    private OrderType orderType;
+    private OrderStatus status;
+    private Long totalAmountPaise;
+    private LocalDateTime createdAt;
+    private LocalDateTime estimatedReadyTime;
+    private Integer estimatedKptMinutes;
+    private Boolean isEditable;
+    private LocalDateTime editableUntil;
+    private Boolean isQrOrder;
+    private Boolean whatsappBillSent;
+    private String tableName;
+}
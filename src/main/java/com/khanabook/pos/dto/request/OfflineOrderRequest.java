@@ -0,0 +1,18 @@
+package com.khanabook.pos.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class OfflineOrderRequest {
+
+    @NotNull(message = "Client order ID is required")
+    private UUID clientOrderId;
+
+    @NotNull(message = "Order is required")
+    @Valid
+    private OrderRequest order;
+}
@@ -0,0 +1,16 @@
+package com.khanabook.pos.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderIdsRequest {
+
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 100, message = "At most 100 orders can be updated per request")
+    private List<@NotNull Long> orderIds;
+}
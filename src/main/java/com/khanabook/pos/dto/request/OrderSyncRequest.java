@@ -0,0 +1,17 @@
+package com.khanabook.pos.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderSyncRequest {
+
+    @NotEmpty(message = "At least one order is required")
+    @Size(max = 200, message = "At most 200 orders can be synced per request")
+    @Valid
+    private List<OfflineOrderRequest> orders;
+}
@@ -0,0 +1,13 @@
+package com.khanabook.pos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class BulkStatusResponse {
+    private int updated;
+    private int rejected;
+    private List<BulkStatusResult> results;
+}
@@ -0,0 +1,19 @@
+package com.khanabook.pos.dto.response;
+
+import com.khanabook.pos.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class BulkStatusResult {
+    private Long orderId;
+    private Outcome outcome;
+    private OrderStatus status; // status after the request; null if the order was not found
+    private String error;
+
+    public enum Outcome {
+        UPDATED,
+        REJECTED,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,14 @@
+package com.khanabook.pos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // pass back as ?cursor= for the next page; null on the last page
+}
@@ -0,0 +1,17 @@
+package com.khanabook.pos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class KitchenBoardCheck {
+    private int boardSize;
+    private int databaseSize;
+    private List<Long> missing;   // on the kitchen in the database, absent from the board
+    private List<Long> unexpected; // on the board, no longer kitchen orders in the database
+    private List<Long> outdated;  // on both, but the board holds an older version
+    private boolean consistent;
+    private boolean repaired;
+}
@@ -0,0 +1,16 @@
+package com.khanabook.pos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data @AllArgsConstructor
+public class KptIndexStats {
+    private int size;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private int defaultMinutes;
+    private LocalDateTime loadedAt;
+}
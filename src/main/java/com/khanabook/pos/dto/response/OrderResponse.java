@@ -1,7 +1,10 @@
 package com.khanabook.pos.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.khanabook.pos.model.OrderStatus;
 import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.util.Money;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -12,7 +15,9 @@ public class OrderResponse {
     private Long id;
     private OrderType orderType;
     private OrderStatus status;
-    private Double totalAmount;
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Money.Serializer.class)
+    private Long totalAmountPaise;
     private LocalDateTime createdAt;
     private LocalDateTime estimatedReadyTime;
     private Integer estimatedKptMinutes;
@@ -27,8 +32,12 @@ public class OrderResponse {
         private Long id;
         private String menuItemName;
         private Integer quantity;
-        private Double price;
-        private Double subtotal;
+        @JsonProperty("price")
+        @JsonSerialize(using = Money.Serializer.class)
+        private Long pricePaise;
+        @JsonProperty("subtotal")
+        @JsonSerialize(using = Money.Serializer.class)
+        private Long subtotalPaise;
         private String specialInstructions;
     }
 }
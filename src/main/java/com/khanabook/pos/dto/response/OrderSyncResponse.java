@@ -0,0 +1,14 @@
+package com.khanabook.pos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class OrderSyncResponse {
+    private int created;
+    private int duplicates;
+    private int rejected;
+    private List<OrderSyncResult> results;
+}
@@ -0,0 +1,20 @@
+package com.khanabook.pos.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data @AllArgsConstructor
+public class OrderSyncResult {
+    private UUID clientOrderId;
+    private Outcome outcome;
+    private OrderResponse order;
+    private String error;
+
+    public enum Outcome {
+        CREATED,
+        DUPLICATE,
+        REJECTED
+    }
+}
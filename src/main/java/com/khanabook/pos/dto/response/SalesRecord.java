@@ -0,0 +1,25 @@
+package com.khanabook.pos.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.util.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data @AllArgsConstructor
+public class SalesRecord {
+    private Long orderId;
+    private OrderType orderType;
+    private OrderStatus status;
+    private String tableName;
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Money.Serializer.class)
+    private Long totalAmountPaise;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private boolean archived;
+}
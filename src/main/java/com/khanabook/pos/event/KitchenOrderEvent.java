@@ -0,0 +1,18 @@
+package com.khanabook.pos.event;
+
+import com.khanabook.pos.dto.response.KitchenOrderResponse;
+
+/**
+ * Snapshot of an order as the kitchen sees it, published inside the transaction that changed
+ * it and delivered to listeners after commit. {@code version} is the order's optimistic-lock
+ * version, so consumers can discard snapshots older than one they already hold.
+ */
+public record KitchenOrderEvent(Type type, KitchenOrderResponse order, long version) {
+
+    public enum Type {
+        ORDER_CREATED,
+        STATUS_CHANGED,
+        ORDER_LOCKED,
+        KPT_UPDATED
+    }
+}
@@ -0,0 +1,10 @@
+package com.khanabook.pos.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a QR order is saved and delivered after commit, so the edit-window timer is
+ * only armed for orders that actually exist.
+ */
+public record QrOrderPlacedEvent(Long orderId, LocalDateTime editableUntil) {
+}
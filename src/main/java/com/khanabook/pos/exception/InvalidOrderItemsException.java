@@ -0,0 +1,35 @@
+package com.khanabook.pos.exception;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InvalidOrderItemsException extends IllegalArgumentException {
+
+    private final List<Long> missingMenuItemIds;
+    private final List<String> unavailableMenuItems;
+
+    public InvalidOrderItemsException(List<Long> missingMenuItemIds, List<String> unavailableMenuItems) {
+        super(buildMessage(missingMenuItemIds, unavailableMenuItems));
+        this.missingMenuItemIds = List.copyOf(missingMenuItemIds);
+        this.unavailableMenuItems = List.copyOf(unavailableMenuItems);
+    }
+
+    public List<Long> getMissingMenuItemIds() {
+        return missingMenuItemIds;
+    }
+
+    public List<String> getUnavailableMenuItems() {
+        return unavailableMenuItems;
+    }
+
+    private static String buildMessage(List<Long> missing, List<String> unavailable) {
+        List<String> parts = new ArrayList<>();
+        if (!missing.isEmpty()) {
+            parts.add("Menu items not found: " + missing);
+        }
+        if (!unavailable.isEmpty()) {
+            parts.add("Menu items not available: " + unavailable);
+        }
+        return String.join("; ", parts);
+    }
+}
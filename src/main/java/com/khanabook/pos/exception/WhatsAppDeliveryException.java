@@ -0,0 +1,11 @@
+package com.khanabook.pos.exception;
+
+public class WhatsAppDeliveryException extends RuntimeException {
+    public WhatsAppDeliveryException(String message) {
+        super(message);
+    }
+
+    public WhatsAppDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,68 @@
+package com.khanabook.pos.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completed or cancelled order moved out of customer_orders by the archival job.
+ * Rows are written with INSERT ... SELECT and never updated; table names are denormalized
+ * so reports don't need the live tables. Partitioned by archiveMonth (yyyyMM) in MySQL.
+ */
+@Entity(name = "archived_orders")
+@Table(indexes = @Index(name = "idx_archived_orders_created", columnList = "createdAt"))
+@IdClass(ArchivedOrderKey.class)
+@Immutable
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Id
+    private Integer archiveMonth;
+
+    @Column(length = 36)
+    private String clientOrderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderType orderType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Long totalAmountPaise;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime confirmedAt;
+    private LocalDateTime sentToKitchenAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime servedAt;
+    private LocalDateTime completedAt;
+
+    private Long restaurantTableId;
+    private String tableName;
+    private Long createdByUserId;
+
+    private Boolean isQrOrder;
+    private Integer estimatedKptMinutes;
+    private Integer actualKptMinutes;
+    private Boolean whatsappBillSent;
+    private String customerPhone;
+    private String specialInstructions;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Partition key (yyyyMM) for an order created at createdAt, matching what OrderArchiver writes
+    public static int archiveMonth(LocalDateTime createdAt) {
+        return createdAt.getYear() * 100 + createdAt.getMonthValue();
+    }
+}
@@ -0,0 +1,35 @@
+package com.khanabook.pos.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+@Entity(name = "archived_order_items")
+@Table(indexes = @Index(name = "idx_archived_order_items_order", columnList = "orderId"))
+@IdClass(ArchivedOrderKey.class)
+@Immutable
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @Id
+    private Integer archiveMonth;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    private Long menuItemId;
+
+    @Column(nullable = false)
+    private String menuItemName;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Long pricePaise;
+
+    private String specialInstructions;
+}
@@ -0,0 +1,14 @@
+package com.khanabook.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// MySQL requires the partitioning column in every unique key, so archive rows are keyed by (id, archiveMonth)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class ArchivedOrderKey implements Serializable {
+    private Long id;
+    private Integer archiveMonth;
+}
@@ -1,5 +1,6 @@
 package com.khanabook.pos.model;
 
+import com.khanabook.pos.service.KptIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +8,7 @@ import java.time.LocalDateTime;
 
 @Entity(name = "kitchen_preparation_times")
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
+@EntityListeners(KptIndexEntityListener.class)
 public class KitchenPreparationTime {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,6 +1,10 @@
 package com.khanabook.pos.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.khanabook.pos.util.Money;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -22,7 +26,10 @@ public class MenuItem {
 
     private String description;
     @Column(nullable = false)
-    private Double price;
+    @JsonProperty("price")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private Long pricePaise;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
@@ -2,6 +2,7 @@ package com.khanabook.pos.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.khanabook.pos.util.Money;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,14 +10,16 @@ import lombok.*;
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
 public class OrderItem {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private Integer quantity;
 
     @Column(nullable = false)
-    private Double price; // Price at time of order
+    private Long pricePaise; // Price at time of order
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_order_id", nullable = false)
@@ -30,7 +33,7 @@ public class OrderItem {
 
     private String specialInstructions;
 
-    public Double getSubtotal() {
-        return price * quantity;
+    public long getSubtotalPaise() {
+        return Money.lineTotal(pricePaise, quantity);
     }
 }
@@ -0,0 +1,17 @@
+package com.khanabook.pos.model;
+
+import lombok.Getter;
+
+@Getter
+public enum OutboxStatus {
+    PENDING("Waiting for delivery"),
+    IN_FLIGHT("Claimed by a delivery worker"),
+    SENT("Delivered to the provider"),
+    DEAD("Gave up after repeated failures");
+
+    private final String description;
+
+    OutboxStatus(String description) {
+        this.description = description;
+    }
+}
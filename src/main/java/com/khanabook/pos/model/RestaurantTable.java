@@ -16,6 +16,9 @@ public class RestaurantTable {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(nullable = false, unique = true)
     private String name; // T1, T2, VIP-1
 
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity(name = "table_bookings")
+@Table(indexes = @Index(name = "idx_table_bookings_created", columnList = "createdAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +19,9 @@ public class TableBooking {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "table_id", nullable = false)
     @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
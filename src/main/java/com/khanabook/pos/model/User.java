@@ -54,6 +54,11 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean active = true;
 
+    // Embedded in claims-mode tokens; bumped on role change or deactivation to revoke them
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     private LocalDateTime createdAt;
     private LocalDateTime lastLogin;
 
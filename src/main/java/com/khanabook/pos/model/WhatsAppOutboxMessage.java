@@ -0,0 +1,54 @@
+package com.khanabook.pos.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "whatsapp_outbox")
+@Table(indexes = @Index(name = "idx_whatsapp_outbox_due", columnList = "status, nextAttemptAt"))
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class WhatsAppOutboxMessage {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain id rather than a relation so the worker never touches the order graph
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String phone;
+
+    @Column(nullable = false, length = 4000)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Lease held by the worker delivering an IN_FLIGHT message; once it passes, any instance may reclaim it
+    private LocalDateTime claimedUntil;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.khanabook.pos.repository;
+
+import com.khanabook.pos.model.ArchivedOrderItem;
+import com.khanabook.pos.model.ArchivedOrderKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, ArchivedOrderKey> {
+
+    List<ArchivedOrderItem> findByOrderId(Long orderId);
+}
@@ -0,0 +1,36 @@
+package com.khanabook.pos.repository;
+
+import com.khanabook.pos.dto.response.SalesRecord;
+import com.khanabook.pos.model.ArchivedOrder;
+import com.khanabook.pos.model.ArchivedOrderKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, ArchivedOrderKey> {
+
+    // The archiveMonth range (see ArchivedOrder.archiveMonth) lets MySQL prune to the partitions the dates fall in
+    @Query("SELECT new com.khanabook.pos.dto.response.SalesRecord(a.id, a.orderType, a.status, a.tableName, " +
+            "a.totalAmountPaise, a.createdAt, a.completedAt, true) " +
+            "FROM archived_orders a WHERE a.archiveMonth BETWEEN :fromMonth AND :toMonth " +
+            "AND a.createdAt BETWEEN :start AND :end")
+    List<SalesRecord> findSalesRecordsBetween(@Param("fromMonth") int fromMonth, @Param("toMonth") int toMonth,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT a.status, COUNT(a) FROM archived_orders a GROUP BY a.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT a.orderType, COUNT(a) FROM archived_orders a GROUP BY a.orderType")
+    List<Object[]> countByType();
+
+    @Query("SELECT COALESCE(SUM(a.totalAmountPaise), 0) FROM archived_orders a " +
+            "WHERE a.archiveMonth BETWEEN :fromMonth AND :toMonth " +
+            "AND a.status = com.khanabook.pos.model.OrderStatus.COMPLETED AND a.createdAt BETWEEN :start AND :end")
+    long sumCompletedRevenueBetween(@Param("fromMonth") int fromMonth, @Param("toMonth") int toMonth,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
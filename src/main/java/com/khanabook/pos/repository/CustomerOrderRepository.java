@@ -1,30 +1,84 @@
 package com.khanabook.pos.repository;
 
+import com.khanabook.pos.dto.projection.OrderItemView;
+import com.khanabook.pos.dto.projection.OrderSummaryView;
+import com.khanabook.pos.dto.response.SalesRecord;
 import com.khanabook.pos.model.CustomerOrder;
 import com.khanabook.pos.model.OrderStatus;
 import com.khanabook.pos.model.OrderType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, Long> {
+       // Bumps the order's version on commit even if the order is unchanged, so two transactions
+       // acting on it (such as queueing its bill) cannot both commit
+       @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+       Optional<CustomerOrder> findLockedById(Long id);
+
        Page<CustomerOrder> findByStatus(OrderStatus status, Pageable pageable);
 
        Page<CustomerOrder> findByOrderType(OrderType orderType, Pageable pageable);
 
        List<CustomerOrder> findByStatusIn(List<OrderStatus> statuses);
 
+       List<CustomerOrder> findByClientOrderIdIn(Collection<String> clientOrderIds);
+
+       boolean existsByRestaurantTableIdAndStatusNotInAndIdNot(Long tableId, Collection<OrderStatus> statuses,
+                     Long id);
+
        @Query("SELECT o FROM CustomerOrder o LEFT JOIN FETCH o.orderItems oi " +
                      "LEFT JOIN FETCH oi.menuItem WHERE o.status IN :statuses")
        List<CustomerOrder> findByStatusInWithItems(@Param("statuses") List<OrderStatus> statuses);
 
+       String ORDER_SUMMARY_SELECT = "SELECT new com.khanabook.pos.dto.projection.OrderSummaryView(" +
+                     "o.id, o.orderType, o.status, o.totalAmountPaise, o.createdAt, o.estimatedReadyTime, " +
+                     "o.estimatedKptMinutes, o.isEditable, o.editableUntil, o.isQrOrder, o.whatsappBillSent, t.name) " +
+                     "FROM CustomerOrder o LEFT JOIN o.restaurantTable t ";
+
+       @Query(value = ORDER_SUMMARY_SELECT,
+                     countQuery = "SELECT COUNT(o) FROM CustomerOrder o")
+       Page<OrderSummaryView> findSummaries(Pageable pageable);
+
+       @Query(value = ORDER_SUMMARY_SELECT + "WHERE o.status = :status",
+                     countQuery = "SELECT COUNT(o) FROM CustomerOrder o WHERE o.status = :status")
+       Page<OrderSummaryView> findSummariesByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+       // Keyset pages: rows strictly after (createdAt, id) in descending order; no count query
+       @Query(ORDER_SUMMARY_SELECT + "WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+                     "ORDER BY o.createdAt DESC, o.id DESC")
+       List<OrderSummaryView> findSummariesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                     Pageable limit);
+
+       @Query(ORDER_SUMMARY_SELECT + "WHERE o.status = :status " +
+                     "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+                     "ORDER BY o.createdAt DESC, o.id DESC")
+       List<OrderSummaryView> findSummariesByStatusAfter(@Param("status") OrderStatus status,
+                     @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+       @Query("SELECT new com.khanabook.pos.dto.projection.OrderItemView(" +
+                     "oi.customerOrder.id, oi.id, m.name, oi.quantity, oi.pricePaise, oi.specialInstructions) " +
+                     "FROM order_items oi JOIN oi.menuItem m WHERE oi.customerOrder.id IN :orderIds ORDER BY oi.id")
+       List<OrderItemView> findItemViewsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+       @Query("SELECT o.id, o.version FROM CustomerOrder o WHERE o.status IN :statuses")
+       List<Object[]> findIdAndVersionByStatusIn(@Param("statuses") List<OrderStatus> statuses);
+
+       @Query("SELECT o.id, o.editableUntil FROM CustomerOrder o WHERE o.isQrOrder = true " +
+                     "AND o.isEditable = true AND o.status = :status AND o.editableUntil IS NOT NULL")
+       List<Object[]> findOpenEditWindows(@Param("status") OrderStatus status);
+
        @Query("SELECT o.status, COUNT(o) FROM CustomerOrder o GROUP BY o.status")
        List<Object[]> countByStatus();
 
@@ -33,6 +87,15 @@ public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, Lo
 
        List<CustomerOrder> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
+       @Query("SELECT new com.khanabook.pos.dto.response.SalesRecord(o.id, o.orderType, o.status, t.name, " +
+                     "o.totalAmountPaise, o.createdAt, o.completedAt, false) " +
+                     "FROM CustomerOrder o LEFT JOIN o.restaurantTable t WHERE o.createdAt BETWEEN :start AND :end")
+       List<SalesRecord> findSalesRecordsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+       @Query("SELECT COALESCE(SUM(o.totalAmountPaise), 0) FROM CustomerOrder o " +
+                     "WHERE o.status = com.khanabook.pos.model.OrderStatus.COMPLETED AND o.createdAt BETWEEN :start AND :end")
+       long sumCompletedRevenueBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
        @Query("SELECT o FROM com.khanabook.pos.model.CustomerOrder o WHERE o.restaurantTable.id = :tableId " +
                      "AND o.status NOT IN ('COMPLETED', 'CANCELLED')")
        List<CustomerOrder> findActiveOrdersByTableId(@Param("tableId") Long tableId);
@@ -2,11 +2,16 @@ package com.khanabook.pos.repository;
 
 import com.khanabook.pos.model.KitchenPreparationTime;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface KptRepository extends JpaRepository<KitchenPreparationTime, Long> {
     Optional<KitchenPreparationTime> findByMenuItemId(Long menuItemId);
+
+    @Query("SELECT k.menuItem.id, k.estimatedMinutes FROM kitchen_preparation_times k")
+    List<Object[]> findAllEstimates();
 }
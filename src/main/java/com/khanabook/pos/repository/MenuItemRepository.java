@@ -3,14 +3,39 @@ package com.khanabook.pos.repository;
 import com.khanabook.pos.model.MenuItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    // Menu items are serialized with their category after the transaction ends, so fetch it up front
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<MenuItem> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<MenuItem> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
     Page<MenuItem> findByAvailableTrue(Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
     List<MenuItem> findByCategoryIdAndAvailableTrue(Long categoryId);
+
+    @EntityGraph(attributePaths = "category")
     Page<MenuItem> findByCategoryId(Long categoryId, Pageable pageable);
+
+    @Query("SELECT m.id, m.name, m.pricePaise, m.available FROM menu_items m")
+    List<Object[]> findPricingRows();
+
+    @Query("SELECT m.id, m.name, m.pricePaise, m.available FROM menu_items m WHERE m.id IN :ids")
+    List<Object[]> findPricingRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
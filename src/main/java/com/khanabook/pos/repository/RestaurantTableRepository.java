@@ -2,7 +2,9 @@ package com.khanabook.pos.repository;
 
 import com.khanabook.pos.model.RestaurantTable;
 import com.khanabook.pos.model.TableStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +13,15 @@ import java.util.Optional;
 @Repository
 public interface RestaurantTableRepository extends JpaRepository<RestaurantTable, Long> {
     Optional<RestaurantTable> findByQrToken(String qrToken);
+
+    // Bumps the table's version on commit even if its status is unchanged, so two
+    // transactions seating or freeing the same table cannot both win
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<RestaurantTable> findLockedById(Long id);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<RestaurantTable> findLockedByQrToken(String qrToken);
+
     List<RestaurantTable> findByStatus(TableStatus status);
     Boolean existsByName(String name);
 }
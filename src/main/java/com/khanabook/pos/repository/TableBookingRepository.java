@@ -4,16 +4,38 @@ import com.khanabook.pos.model.BookingStatus;
 import com.khanabook.pos.model.TableBooking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TableBookingRepository extends JpaRepository<TableBooking, Long> {
+    // Bookings are serialized with their table after the transaction ends, so fetch it up front
+    @Override
+    @EntityGraph(attributePaths = "restaurantTable")
+    Optional<TableBooking> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "restaurantTable")
+    Page<TableBooking> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "restaurantTable")
     Page<TableBooking> findByStatus(BookingStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = "restaurantTable")
+    @Query("SELECT b FROM table_bookings b " +
+            "WHERE b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<TableBooking> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable limit);
+
+    @EntityGraph(attributePaths = "restaurantTable")
     List<TableBooking> findByBookingDateTimeBetween(LocalDateTime start, LocalDateTime end);
 
     List<TableBooking> findByRestaurantTableIdAndBookingDateTimeBetween(
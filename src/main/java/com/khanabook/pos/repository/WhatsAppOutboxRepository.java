@@ -0,0 +1,37 @@
+package com.khanabook.pos.repository;
+
+import com.khanabook.pos.model.OutboxStatus;
+import com.khanabook.pos.model.WhatsAppOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WhatsAppOutboxRepository extends JpaRepository<WhatsAppOutboxMessage, Long> {
+
+    // Due messages, plus in-flight ones whose worker's lease ran out (crashed or stopped instance)
+    @Query("SELECT m.id FROM whatsapp_outbox m " +
+            "WHERE (m.status = com.khanabook.pos.model.OutboxStatus.PENDING AND m.nextAttemptAt <= :now) " +
+            "OR (m.status = com.khanabook.pos.model.OutboxStatus.IN_FLIGHT AND m.claimedUntil < :now) " +
+            "ORDER BY m.nextAttemptAt")
+    List<Long> findClaimableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional update so two pollers can never hold the same message at once
+    @Modifying
+    @Query("UPDATE whatsapp_outbox m SET m.status = com.khanabook.pos.model.OutboxStatus.IN_FLIGHT, " +
+            "m.claimedUntil = :until WHERE m.id = :id " +
+            "AND (m.status = com.khanabook.pos.model.OutboxStatus.PENDING " +
+            "OR (m.status = com.khanabook.pos.model.OutboxStatus.IN_FLIGHT AND m.claimedUntil < :now))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    boolean existsByOrderIdAndStatusIn(Long orderId, Collection<OutboxStatus> statuses);
+
+    List<WhatsAppOutboxMessage> findByOrderId(Long orderId);
+}
@@ -1,14 +1,16 @@
 package com.khanabook.pos.security;
 
+import com.khanabook.pos.model.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,8 +20,12 @@ import java.io.IOException;
 @Component @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
     private final JwtUtil jwtUtil;
+    private final TokenDenylist tokenDenylist;
+
+    @Value("${jwt.claims-mode.enabled:false}")
+    private boolean claimsMode;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -30,17 +36,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        VerifiedToken jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+            jwt = jwtUtil.verify(authorizationHeader.substring(7));
+            username = jwt.username();
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            UserDetails userDetails = resolve(jwt);
+            if (userDetails != null && userDetails.isEnabled() && jwtUtil.validateToken(jwt, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
@@ -50,4 +55,27 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // A claims-mode token its user's version still accepts needs no lookup; a lower version was revoked
+    private UserDetails resolve(VerifiedToken jwt) {
+        User claimed = claimsMode ? jwt.claimsPrincipal() : null;
+        if (claimed != null) {
+            int currentVersion = tokenDenylist.currentVersion(claimed.getId());
+            if (currentVersion >= 0) {
+                return claimed.getTokenVersion() >= currentVersion ? claimed : null;
+            }
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = principalCache.get(jwt.username());
+        } catch (UsernameNotFoundException e) {
+            // Deleted since the token was issued; the request carries on unauthenticated
+            return null;
+        }
+        if (claimed != null && userDetails instanceof User user && user.getTokenVersion() > claimed.getTokenVersion()) {
+            return null;
+        }
+        return userDetails;
+    }
 }
@@ -0,0 +1,84 @@
+package com.khanabook.pos.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.khanabook.pos.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Users behind bearer tokens, by username, so an authenticated request does not read the users
+ * table. Bounded and expiring; anything that changes a user's role or active flag, or deletes the
+ * user, must call {@link #evict(String)}. Hit rate is published as
+ * {@code cache.gets{cache="principals"}}.
+ * <p>
+ * Eviction only reaches this instance. A change made on another instance bumps the user's token
+ * version (or deletes the row), and each hit is checked against the versions {@link TokenDenylist}
+ * refreshes from the database, so a stale entry is reloaded within
+ * {@code jwt.claims-mode.denylist-refresh-ms} rather than the full TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final TokenDenylist tokenDenylist;
+    private final Cache<String, UserDetails> principals;
+
+    public PrincipalCache(UserDetailsService userDetailsService, TokenDenylist tokenDenylist,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.principal-cache.max-size:10000}") long maxSize,
+            @Value("${jwt.principal-cache.ttl-ms:300000}") long ttlMs) {
+        this.userDetailsService = userDetailsService;
+        this.tokenDenylist = tokenDenylist;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    // Unknown usernames are not cached; the UsernameNotFoundException reaches the caller
+    public UserDetails get(String username) {
+        UserDetails principal = principals.get(username, this::load);
+        if (principal instanceof User user && tokenDenylist.isStale(user.getId(), user.getTokenVersion())) {
+            // Revoked or deleted on another instance since it was cached
+            principals.invalidate(username);
+            principal = principals.get(username, this::load);
+        }
+        return principal;
+    }
+
+    // Recording the version just read keeps a user created since the last refresh from counting as stale
+    private UserDetails load(String username) {
+        UserDetails principal = userDetailsService.loadUserByUsername(username);
+        if (principal instanceof User user) {
+            tokenDenylist.update(user.getId(), user.getTokenVersion());
+        }
+        return principal;
+    }
+
+    /**
+     * Drops the user now and again when the surrounding transaction commits, so a request that
+     * reloads the old row in between cannot leave it cached.
+     */
+    public void evict(String username) {
+        principals.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(username);
+                }
+            });
+        }
+    }
+}
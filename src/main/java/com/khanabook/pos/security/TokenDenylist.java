@@ -0,0 +1,119 @@
+package com.khanabook.pos.security;
+
+import com.khanabook.pos.repository.UserRepository;
+import com.khanabook.pos.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Current token version per user id, so claims-mode tokens are authorized without reading the
+ * users table: a token carrying a lower version than its user's has been revoked. Writes on this
+ * instance apply after commit; other instances catch up on the next refresh. Users it does not
+ * know yet report -1 and are looked up the usual way. {@link PrincipalCache} checks its entries
+ * against the same versions, so it is loaded whether or not claims mode is on.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenDenylist {
+
+    private final UserRepository userRepository;
+
+    // A lock rather than synchronized: reload() waits on JDBC and must not pin a virtual thread's carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile LongIntHashMap versionsByUser;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    // Startup already loaded the versions, so the first refresh waits a full interval
+    @Scheduled(fixedDelayString = "${jwt.claims-mode.denylist-refresh-ms:30000}",
+            initialDelayString = "${jwt.claims-mode.denylist-refresh-ms:30000}")
+    public void refresh() {
+        reload();
+    }
+
+    public int currentVersion(long userId) {
+        LongIntHashMap versions = versionsByUser;
+        return versions != null ? versions.get(userId, -1) : -1;
+    }
+
+    /**
+     * Whether a principal loaded at {@code version} is out of date as of the last refresh: its
+     * tokens were revoked since, or the user is gone.
+     */
+    public boolean isStale(long userId, int version) {
+        LongIntHashMap versions = versionsByUser;
+        return versions != null && (!versions.containsKey(userId) || versions.get(userId, -1) > version);
+    }
+
+    // Holds the lock across the query so a write committed meanwhile is applied on top, not lost
+    public void reload() {
+        writeLock.lock();
+        try {
+            List<Object[]> rows = userRepository.findTokenVersions();
+            LongIntHashMap versions = new LongIntHashMap(rows.size());
+            for (Object[] row : rows) {
+                versions.put((Long) row[0], (Integer) row[1]);
+            }
+            versionsByUser = versions;
+            log.debug("Loaded token versions for {} users", versions.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Records a user's version once the surrounding transaction commits; versions never go down. */
+    public void update(long userId, int version) {
+        afterCommit(() -> modify(versions -> {
+            if (versions.get(userId, -1) < version) {
+                versions.put(userId, version);
+            }
+        }));
+    }
+
+    // Forgotten users fall back to a lookup, which fails for a deleted user
+    public void remove(long userId) {
+        afterCommit(() -> modify(versions -> versions.remove(userId)));
+    }
+
+    private void modify(Consumer<LongIntHashMap> change) {
+        writeLock.lock();
+        try {
+            LongIntHashMap versions = versionsByUser;
+            if (versions != null) {
+                versions = versions.copy();
+                change.accept(versions);
+                versionsByUser = versions;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
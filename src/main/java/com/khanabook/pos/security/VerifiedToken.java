@@ -0,0 +1,43 @@
+package com.khanabook.pos.security;
+
+import com.khanabook.pos.model.Role;
+import com.khanabook.pos.model.User;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * A bearer token whose signature has been checked. Instances may be shared between requests
+ * through the verified-token cache, so {@code claims} must be treated as read-only.
+ */
+public record VerifiedToken(String username, Date expiration, Claims claims) {
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+
+    /**
+     * The user described by a claims-mode token, detached and never loaded from the database, or
+     * null for a token that carries only a subject.
+     */
+    public User claimsPrincipal() {
+        Object userId = claims.get(USER_ID_CLAIM);
+        Object role = claims.get(ROLE_CLAIM);
+        Object tokenVersion = claims.get(TOKEN_VERSION_CLAIM);
+        if (!(userId instanceof Number) || !(role instanceof String) || !(tokenVersion instanceof Number)) {
+            return null;
+        }
+        return User.builder()
+                .id(((Number) userId).longValue())
+                .username(username)
+                .password("")
+                .role(Role.valueOf((String) role))
+                .active(true)
+                .tokenVersion(((Number) tokenVersion).intValue())
+                .build();
+    }
+}
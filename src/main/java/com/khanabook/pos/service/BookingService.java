@@ -1,6 +1,7 @@
 package com.khanabook.pos.service;
 
 import com.khanabook.pos.dto.request.BookingRequest;
+import com.khanabook.pos.dto.response.CursorPage;
 import com.khanabook.pos.model.TableBooking;
 import com.khanabook.pos.model.BookingStatus;
 import org.springframework.data.domain.Page;
@@ -18,6 +19,8 @@ public interface BookingService {
 
 	Page<TableBooking> getAllBookings(Pageable pageable);
 
+	CursorPage<TableBooking> getBookingsPage(String cursor, int size);
+
 	Page<TableBooking> getBookingsByStatus(BookingStatus status, Pageable pageable);
 
 	List<TableBooking> getBookingsBetween(LocalDateTime start, LocalDateTime end);
@@ -0,0 +1,112 @@
+package com.khanabook.pos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.khanabook.pos.dto.response.OrderResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of order submissions by client-supplied Idempotency-Key. Keys are only
+ * unique within a scope (the authenticated user, or the table's QR token), so two callers can
+ * never see each other's orders. A replayed key returns the original response; a duplicate
+ * arriving while the first is still running waits for it instead of creating a second order;
+ * the same key with a different body is rejected.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Submission> submissions;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              @Value("${orders.idempotency.max-keys:10000}") long maxKeys,
+                              @Value("${orders.idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.objectMapper = objectMapper;
+        // In-flight submissions weigh nothing, so size-based eviction cannot drop one while a
+        // duplicate might still arrive and run the order a second time
+        this.submissions = Caffeine.newBuilder()
+                .maximumWeight(maxKeys)
+                .<Key, Submission>weigher((key, submission) -> submission.response().isDone() ? 1 : 0)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public OrderResponse execute(String scope, String idempotencyKey, Object request,
+                                 Supplier<OrderResponse> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        if (scope == null || scope.isBlank()) {
+            throw new IllegalArgumentException("Idempotency-Key requires an authenticated caller");
+        }
+
+        Key key = new Key(scope, idempotencyKey);
+        Submission submission = new Submission(fingerprint(request), new CompletableFuture<>());
+        Submission existing = submissions.asMap().putIfAbsent(key, submission);
+        if (existing != null) {
+            if (!Arrays.equals(existing.fingerprint(), submission.fingerprint())) {
+                throw new IllegalArgumentException("Idempotency-Key has already been used for a different request");
+            }
+            log.debug("Replaying order response for idempotency key {}", key);
+            return await(existing.response());
+        }
+
+        try {
+            OrderResponse response = action.get();
+            submission.response().complete(response);
+            // Re-weighs the entry now that it is done and may be evicted
+            submissions.asMap().replace(key, submission, new Submission(submission.fingerprint(), submission.response()));
+            return response;
+        } catch (RuntimeException | Error e) {
+            // Failures are not remembered, so the client's next retry runs for real
+            submissions.asMap().remove(key, submission);
+            submission.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private OrderResponse await(CompletableFuture<OrderResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String scope, String idempotencyKey) {
+    }
+
+    private record Submission(byte[] fingerprint, CompletableFuture<OrderResponse> response) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.khanabook.pos.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.khanabook.pos.dto.response.KitchenBoardCheck;
+import com.khanabook.pos.dto.response.KitchenOrderResponse;
+import com.khanabook.pos.event.KitchenOrderEvent;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.service.impl.KitchenOrderMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materialized view of every order the kitchen can see, kept current from committed
+ * {@link KitchenOrderEvent}s. The pending and active lists are rebuilt on each change and
+ * published as immutable snapshots, so reads are a volatile load with no queries or sorting.
+ * Snapshots older than the version already held are ignored, so late or reordered events
+ * cannot roll an order back.
+ */
+@Service
+@Slf4j
+public class KitchenBoard {
+
+    private static final Set<OrderStatus> BOARD_STATUSES =
+            EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.IN_KITCHEN, OrderStatus.READY_TO_SERVE);
+    private static final Set<OrderStatus> PENDING_STATUSES = EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.IN_KITCHEN);
+    private static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.of(OrderStatus.IN_KITCHEN, OrderStatus.READY_TO_SERVE);
+
+    private static final Comparator<KitchenOrderResponse> BY_CREATED_AT = Comparator
+            .comparing(KitchenOrderResponse::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(KitchenOrderResponse::getOrderId);
+
+    private final CustomerOrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Versions of orders that left the board, so a stale snapshot arriving late can't bring them back
+    private final Cache<Long, Long> departed = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private volatile Views views;
+    // Held across the reload query, so a ReentrantLock: a monitor would pin virtual-thread carriers
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public KitchenBoard(CustomerOrderRepository orderRepository, TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public List<KitchenOrderResponse> pending() {
+        return currentViews().pending();
+    }
+
+    public List<KitchenOrderResponse> active() {
+        return currentViews().active();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKitchenOrderEvent(KitchenOrderEvent event) {
+        lock.lock();
+        try {
+            if (views == null) {
+                // Not loaded yet; the initial load will read this change from the database
+                return;
+            }
+            if (apply(event.order(), event.version())) {
+                rebuild();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void reload() {
+        lock.lock();
+        try {
+            Map<Long, Entry> loaded = transactionTemplate.execute(status -> {
+                Map<Long, Entry> board = new HashMap<>();
+                for (CustomerOrder order : orderRepository.findByStatusInWithItems(List.copyOf(BOARD_STATUSES))) {
+                    board.put(order.getId(), new Entry(KitchenOrderMapper.toResponse(order), version(order)));
+                }
+                return board;
+            });
+            entries.clear();
+            entries.putAll(loaded);
+            rebuild();
+            log.info("Loaded kitchen board with {} orders", entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public KitchenBoardCheck check(boolean repair) {
+        lock.lock();
+        try {
+            return compareWithDatabase(repair);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private KitchenBoardCheck compareWithDatabase(boolean repair) {
+        Map<Long, Long> database = transactionTemplate.execute(status -> {
+            Map<Long, Long> versions = new HashMap<>();
+            for (Object[] row : orderRepository.findIdAndVersionByStatusIn(List.copyOf(BOARD_STATUSES))) {
+                versions.put((Long) row[0], row[1] != null ? (Long) row[1] : 0L);
+            }
+            return versions;
+        });
+
+        List<Long> missing = new ArrayList<>();
+        List<Long> outdated = new ArrayList<>();
+        database.forEach((id, version) -> {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                missing.add(id);
+            } else if (entry.version() < version) {
+                outdated.add(id);
+            }
+        });
+        List<Long> unexpected = entries.keySet().stream().filter(id -> !database.containsKey(id)).sorted().toList();
+        missing.sort(null);
+        outdated.sort(null);
+
+        boolean consistent = missing.isEmpty() && unexpected.isEmpty() && outdated.isEmpty();
+        if (!consistent) {
+            log.warn("Kitchen board drifted from the database: missing={}, unexpected={}, outdated={}",
+                    missing, unexpected, outdated);
+        }
+        int boardSize = entries.size();
+        if (!consistent && repair) {
+            reload();
+        }
+        return new KitchenBoardCheck(boardSize, database.size(), missing, unexpected, outdated, consistent,
+                !consistent && repair);
+    }
+
+    private boolean apply(KitchenOrderResponse order, long version) {
+        Long orderId = order.getOrderId();
+        Entry current = entries.get(orderId);
+        Long departedVersion = departed.getIfPresent(orderId);
+        if ((current != null && current.version() > version)
+                || (departedVersion != null && departedVersion > version)) {
+            return false;
+        }
+
+        if (BOARD_STATUSES.contains(order.getStatus())) {
+            entries.put(orderId, new Entry(order, version));
+            departed.invalidate(orderId);
+            return true;
+        }
+        departed.put(orderId, version);
+        return entries.remove(orderId) != null;
+    }
+
+    private void rebuild() {
+        List<KitchenOrderResponse> pending = new ArrayList<>();
+        List<KitchenOrderResponse> active = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            OrderStatus status = entry.order().getStatus();
+            if (PENDING_STATUSES.contains(status)) {
+                pending.add(entry.order());
+            }
+            if (ACTIVE_STATUSES.contains(status)) {
+                active.add(entry.order());
+            }
+        }
+        pending.sort(BY_CREATED_AT);
+        active.sort(BY_CREATED_AT);
+        views = new Views(List.copyOf(pending), List.copyOf(active));
+    }
+
+    private Views currentViews() {
+        Views current = views;
+        return current != null ? current : loadIfAbsent();
+    }
+
+    private Views loadIfAbsent() {
+        lock.lock();
+        try {
+            if (views == null) {
+                reload();
+            }
+            return views;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long version(CustomerOrder order) {
+        return order.getVersion() != null ? order.getVersion() : 0L;
+    }
+
+    private record Entry(KitchenOrderResponse order, long version) {
+    }
+
+    private record Views(List<KitchenOrderResponse> pending, List<KitchenOrderResponse> active) {
+    }
+}
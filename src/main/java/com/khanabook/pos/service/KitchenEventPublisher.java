@@ -0,0 +1,27 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.event.KitchenOrderEvent;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.service.impl.KitchenOrderMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class KitchenEventPublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CustomerOrderRepository orderRepository;
+
+    /**
+     * Must be called inside the transaction that saved the order. Flushes first so the
+     * snapshot carries the version the commit will write.
+     */
+    public void publish(KitchenOrderEvent.Type type, CustomerOrder order) {
+        orderRepository.flush();
+        applicationEventPublisher.publishEvent(
+                new KitchenOrderEvent(type, KitchenOrderMapper.toResponse(order), order.getVersion()));
+    }
+}
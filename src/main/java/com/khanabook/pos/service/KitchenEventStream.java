@@ -0,0 +1,202 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.event.KitchenOrderEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans committed kitchen events out to connected displays over Server-Sent Events.
+ * The most recent events are kept in a ring buffer so a display that reconnects with
+ * {@code Last-Event-ID} receives exactly what it missed; if it fell further behind than
+ * the buffer reaches it is told to resync with a full reload instead.
+ * <p>
+ * Publishing only queues the event for each display; the network writes happen on a small
+ * sender pool, so a slow or dead display never holds up the transaction that committed the
+ * change. A display whose queue fills is disconnected and catches up through the same
+ * {@code Last-Event-ID} path when it reconnects.
+ */
+@Service
+@Slf4j
+public class KitchenEventStream {
+
+    static final String RESYNC_EVENT = "RESYNC";
+
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ThreadPoolTaskExecutor senders;
+
+    // A lock rather than synchronized: subscribe runs on request threads, which may be virtual
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Entry> buffer = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Seeded from the clock so ids keep increasing across restarts and a stale Last-Event-ID forces a resync
+    private long lastId = System.currentTimeMillis() * 1000;
+
+    public KitchenEventStream(@Value("${kitchen.stream.buffer-size:500}") int bufferSize,
+            @Value("${kitchen.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${kitchen.stream.sender-threads:2}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.senders = new ThreadPoolTaskExecutor();
+        senders.setCorePoolSize(senderThreads);
+        senders.setMaxPoolSize(senderThreads);
+        senders.setThreadNamePrefix("kitchen-stream-");
+        senders.initialize();
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdown();
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Room for a full replay plus whatever is published while it is being written
+        Subscriber subscriber = new Subscriber(emitter, 2 * bufferSize + 1);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Replay and registration happen under the same lock as publish, so nothing slips between them
+        lock.lock();
+        try {
+            if (lastEventId != null && lastEventId != lastId) {
+                long oldest = buffer.isEmpty() ? lastId + 1 : buffer.peekFirst().id();
+                if (lastEventId > lastId || lastEventId < oldest - 1) {
+                    subscriber.offer(SseEmitter.event().id(Long.toString(lastId)).name(RESYNC_EVENT).data(Map.of()));
+                } else {
+                    for (Entry entry : buffer) {
+                        if (entry.id() > lastEventId) {
+                            subscriber.offer(toSse(entry));
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKitchenOrderEvent(KitchenOrderEvent event) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(++lastId, event);
+            buffer.addLast(entry);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            // Queued under the lock so every display sees events in id order
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(toSse(entry));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Keeps idle connections from being closed by proxies between events
+    @Scheduled(fixedDelayString = "${kitchen.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(Entry entry) {
+        return SseEmitter.event()
+                .id(Long.toString(entry.id()))
+                .name(entry.event().type().name())
+                .data(entry.event());
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException e) {
+            log.debug("Dropping kitchen stream subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        } catch (IllegalStateException e) {
+            // Emitter already completed or timed out
+            return false;
+        }
+    }
+
+    private record Entry(long id, KitchenOrderEvent event) {
+    }
+
+    /**
+     * One display's pending events. At most one sender drains it at a time, so its events are
+     * written in the order they were queued.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!pending.offer(event)) {
+                log.debug("Dropping kitchen stream subscriber that fell {} events behind", pending.size());
+                disconnect();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            List<SseEmitter.SseEventBuilder> batch = new ArrayList<>();
+            do {
+                pending.drainTo(batch);
+                for (SseEmitter.SseEventBuilder event : batch) {
+                    if (!send(emitter, event)) {
+                        disconnect();
+                        return;
+                    }
+                }
+                batch.clear();
+                draining.set(false);
+                // An event queued after drainTo but before the flag cleared would otherwise wait for the next one
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void disconnect() {
+            subscribers.remove(this);
+            pending.clear();
+            emitter.complete();
+        }
+    }
+}
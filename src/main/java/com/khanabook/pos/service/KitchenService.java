@@ -1,7 +1,11 @@
 package com.khanabook.pos.service;
 
+import com.khanabook.pos.dto.response.BulkStatusResponse;
+import com.khanabook.pos.dto.response.KitchenBoardCheck;
 import com.khanabook.pos.dto.response.KitchenOrderResponse;
-import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.dto.response.KptIndexStats;
+import com.khanabook.pos.dto.response.OrderResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -11,7 +15,17 @@ public interface KitchenService {
 
 	List<KitchenOrderResponse> getActiveOrders();
 
-	CustomerOrder markOrderReady(Long orderId);
+	KitchenBoardCheck checkBoard(boolean repair);
 
-	CustomerOrder updateKpt(Long orderId, Integer estimatedMinutes);
+	OrderResponse markOrderReady(Long orderId);
+
+	BulkStatusResponse markOrdersReady(List<Long> orderIds);
+
+	OrderResponse updateKpt(Long orderId, Integer estimatedMinutes);
+
+	SseEmitter subscribe(Long lastEventId);
+
+	KptIndexStats getKptIndexStats();
+
+	KptIndexStats reloadKptIndex();
 }
@@ -0,0 +1,124 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.dto.response.KptIndexStats;
+import com.khanabook.pos.repository.KptRepository;
+import com.khanabook.pos.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory menu item id to estimated preparation minutes index, so estimating an order's KPT
+ * never touches the database. Readers see an immutable copy; writers swap in a new one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KptIndex {
+
+    private final KptRepository kptRepository;
+
+    @Value("${kpt.default-minutes:15}")
+    private int defaultMinutes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // A lock rather than synchronized: reload() waits on JDBC and must not pin a virtual thread's carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile LongIntHashMap minutesByMenuItem;
+    private volatile LocalDateTime loadedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public int estimatedMinutes(long menuItemId) {
+        LongIntHashMap index = minutesByMenuItem;
+        if (index == null) {
+            index = loadIfAbsent();
+        }
+        int minutes = index.get(menuItemId, -1);
+        if (minutes < 0) {
+            misses.increment();
+            return defaultMinutes;
+        }
+        hits.increment();
+        return minutes;
+    }
+
+    public KptIndexStats reload() {
+        writeLock.lock();
+        try {
+            List<Object[]> rows = kptRepository.findAllEstimates();
+            LongIntHashMap index = new LongIntHashMap(rows.size());
+            for (Object[] row : rows) {
+                index.put((Long) row[0], (Integer) row[1]);
+            }
+            minutesByMenuItem = index;
+            loadedAt = LocalDateTime.now();
+            log.info("Loaded KPT index with {} entries", index.size());
+            return stats();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void put(long menuItemId, int minutes) {
+        writeLock.lock();
+        try {
+            LongIntHashMap index = current().copy();
+            index.put(menuItemId, minutes);
+            minutesByMenuItem = index;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void remove(long menuItemId) {
+        writeLock.lock();
+        try {
+            LongIntHashMap index = current().copy();
+            if (index.remove(menuItemId)) {
+                minutesByMenuItem = index;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public KptIndexStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        LongIntHashMap index = minutesByMenuItem;
+        return new KptIndexStats(index != null ? index.size() : 0, hitCount, missCount,
+                total == 0 ? 0.0 : (double) hitCount / total, defaultMinutes, loadedAt);
+    }
+
+    private LongIntHashMap current() {
+        LongIntHashMap index = minutesByMenuItem;
+        return index != null ? index : loadIfAbsent();
+    }
+
+    private LongIntHashMap loadIfAbsent() {
+        writeLock.lock();
+        try {
+            if (minutesByMenuItem == null) {
+                reload();
+            }
+            return minutesByMenuItem;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.model.KitchenPreparationTime;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link KptIndex} in step with writes to {@link KitchenPreparationTime}. Changes are
+ * applied after commit so a rolled-back edit never leaks into estimates.
+ */
+@Component
+public class KptIndexEntityListener {
+
+    // Looked up lazily: the index depends on the repository, which depends on this listener
+    private final ObjectProvider<KptIndex> kptIndex;
+
+    public KptIndexEntityListener(ObjectProvider<KptIndex> kptIndex) {
+        this.kptIndex = kptIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(KitchenPreparationTime kpt) {
+        long menuItemId = kpt.getMenuItem().getId();
+        int minutes = kpt.getEstimatedMinutes();
+        afterCommit(() -> kptIndex.getObject().put(menuItemId, minutes));
+    }
+
+    @PostRemove
+    public void onRemove(KitchenPreparationTime kpt) {
+        long menuItemId = kpt.getMenuItem().getId();
+        afterCommit(() -> kptIndex.getObject().remove(menuItemId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
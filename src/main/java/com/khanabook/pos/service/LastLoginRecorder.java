@@ -0,0 +1,81 @@
+package com.khanabook.pos.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for {@code users_table.last_login}. Logins only record a timestamp in
+ * memory; repeated logins by the same user coalesce to the latest one, and a scheduled flush
+ * writes them as JDBC batches in one transaction. {@code lastLogin} therefore trails a login by
+ * up to one flush interval, and a crash loses at most that window of timestamps.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LastLoginRecorder {
+
+    private static final String UPDATE_LAST_LOGIN = "UPDATE users_table SET last_login = :at "
+            + "WHERE id = :id AND (last_login IS NULL OR last_login < :at)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${auth.last-login.batch-size:200}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(Long userId, LocalDateTime at) {
+        pending.merge(userId, at, (earlier, later) -> later.isAfter(earlier) ? later : earlier);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<SqlParameterSource> updates = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime at = pending.remove(userId);
+            if (at != null) {
+                updates.add(new MapSqlParameterSource("id", userId).addValue("at", at));
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < updates.size(); from += batchSize) {
+                    List<SqlParameterSource> batch = updates.subList(from, Math.min(from + batchSize, updates.size()));
+                    jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch.toArray(SqlParameterSource[]::new));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Put them back for the next flush; a newer login recorded meanwhile wins the merge
+            for (SqlParameterSource update : updates) {
+                record((Long) update.getValue("id"), (LocalDateTime) update.getValue("at"));
+            }
+            log.warn("Could not flush {} last-login timestamps, will retry", updates.size(), e);
+            return 0;
+        }
+        return updates.size();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
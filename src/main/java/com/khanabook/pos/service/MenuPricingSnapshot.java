@@ -0,0 +1,165 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.repository.MenuItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable, versioned view of menu prices and availability used when pricing orders.
+ * The whole menu is read in one query and replaced as a unit whenever a menu item changes
+ * through this instance. Changes made elsewhere (another instance, or the database directly)
+ * are picked up once the snapshot is older than {@code menu.snapshot.max-age-ms}. An order naming
+ * items the snapshot does not know looks up just those rows and merges any it finds into a new
+ * version, so ids that do not exist (the QR endpoint is anonymous) never cost a full menu read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MenuPricingSnapshot {
+
+    private final MenuItemRepository menuItemRepository;
+
+    @Value("${menu.snapshot.max-age-ms:5000}")
+    private long maxAgeMs;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot current;
+    // Loads run a query; holding a monitor across it would pin the carrier of a virtual thread
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null && !isStale(snapshot) ? snapshot : reloadUnlessNewer(snapshot);
+    }
+
+    public Snapshot resolve(Collection<Long> menuItemIds) {
+        Snapshot snapshot = current();
+        Set<Long> missing = new HashSet<>();
+        for (Long menuItemId : menuItemIds) {
+            if (snapshot.get(menuItemId) == null) {
+                missing.add(menuItemId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return snapshot;
+        }
+
+        long startGeneration = generation.get();
+        List<Object[]> rows = menuItemRepository.findPricingRowsByIdIn(missing);
+        return rows.isEmpty() ? snapshot : merge(snapshot, rows, startGeneration);
+    }
+
+    public Snapshot reload() {
+        loadLock.lock();
+        try {
+            long startGeneration = generation.get();
+
+            Map<Long, MenuPrice> items = new HashMap<>();
+            for (Object[] row : menuItemRepository.findPricingRows()) {
+                MenuPrice price = toPrice(row);
+                items.put(price.id(), price);
+            }
+
+            Snapshot snapshot = new Snapshot(versions.incrementAndGet(), Instant.now(), Map.copyOf(items));
+            // A write committed while we were reading; serve this copy to the caller but don't keep it
+            if (generation.get() == startGeneration) {
+                current = snapshot;
+            }
+            log.debug("Loaded menu pricing snapshot v{} with {} items", snapshot.version(), items.size());
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the current snapshot once the surrounding transaction commits, or immediately
+     * when called outside a transaction.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        current = null;
+    }
+
+    private boolean isStale(Snapshot snapshot) {
+        return snapshot.loadedAt().plusMillis(maxAgeMs).isBefore(Instant.now());
+    }
+
+    // Keeps the base snapshot's load time, so the rest of the menu is still reloaded on schedule
+    private Snapshot merge(Snapshot base, List<Object[]> rows, long startGeneration) {
+        loadLock.lock();
+        try {
+            Map<Long, MenuPrice> items = new HashMap<>(base.items());
+            for (Object[] row : rows) {
+                MenuPrice price = toPrice(row);
+                items.put(price.id(), price);
+            }
+            Snapshot snapshot = new Snapshot(versions.incrementAndGet(), base.loadedAt(), Map.copyOf(items));
+            // Replaced or invalidated meanwhile; serve the merge to the caller but don't keep it
+            if (current == base && generation.get() == startGeneration) {
+                current = snapshot;
+            }
+            log.debug("Merged {} menu items into pricing snapshot v{}", rows.size(), snapshot.version());
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private static MenuPrice toPrice(Object[] row) {
+        return new MenuPrice((Long) row[0], (String) row[1], (Long) row[2], Boolean.TRUE.equals(row[3]));
+    }
+
+    // Callers that queued behind a reload reuse its result instead of querying again
+    private Snapshot reloadUnlessNewer(Snapshot seen) {
+        loadLock.lock();
+        try {
+            Snapshot snapshot = current;
+            if (snapshot != null && (seen == null || snapshot.version() > seen.version())
+                    && !isStale(snapshot)) {
+                return snapshot;
+            }
+            return reload();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public record MenuPrice(Long id, String name, long pricePaise, boolean available) {
+    }
+
+    public record Snapshot(long version, Instant loadedAt, Map<Long, MenuPrice> items) {
+
+        public MenuPrice get(Long menuItemId) {
+            return items.get(menuItemId);
+        }
+    }
+}
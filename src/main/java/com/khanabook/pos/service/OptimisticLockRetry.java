@@ -0,0 +1,66 @@
+package com.khanabook.pos.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it from scratch when it loses an
+ * optimistic-lock race. After the last attempt the conflict propagates and is reported as 409.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${concurrency.optimistic-retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${concurrency.optimistic-retry.backoff-ms:25}")
+    private long backoffMs;
+
+    public <T> T execute(Supplier<T> work) {
+        // Inside a caller's transaction a retry would reuse stale entities, so run once and let it fail
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up after {} optimistic lock conflicts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                log.debug("Optimistic lock conflict on attempt {}, retrying", attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying after an optimistic lock conflict", e);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.khanabook.pos.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves finished orders out of the hot customer_orders / order_items tables into the
+ * archived_orders / archived_order_items history tables. Work is done in small chunks,
+ * each in its own short transaction, with a pause between chunks so the live service
+ * never waits long on the locks the job takes.
+ * <p>
+ * On MySQL it also keeps monthly partitions of the history tables created
+ * {@code orders.archive.partition-months-ahead} months in advance, by splitting the empty
+ * {@code pmax} catch-all, so no month ever lands there.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiver {
+
+    private static final String SELECT_CHUNK = """
+            SELECT id FROM customer_orders
+            WHERE status IN ('COMPLETED', 'CANCELLED') AND created_at < :cutoff
+            ORDER BY id
+            LIMIT :limit""";
+
+    private static final String ARCHIVE_ORDERS = """
+            INSERT INTO archived_orders (id, archive_month, client_order_id, order_type, status, total_amount_paise,
+                created_at, confirmed_at, sent_to_kitchen_at, ready_at, served_at, completed_at,
+                restaurant_table_id, table_name, created_by_user_id, is_qr_order, estimated_kpt_minutes,
+                actual_kpt_minutes, whatsapp_bill_sent, customer_phone, special_instructions, archived_at)
+            SELECT o.id, YEAR(o.created_at) * 100 + MONTH(o.created_at), o.client_order_id, o.order_type, o.status,
+                o.total_amount_paise, o.created_at, o.confirmed_at, o.sent_to_kitchen_at, o.ready_at, o.served_at,
+                o.completed_at, o.restaurant_table_id, t.name, o.created_by_user_id, o.is_qr_order,
+                o.estimated_kpt_minutes, o.actual_kpt_minutes, o.whatsapp_bill_sent, o.customer_phone,
+                o.special_instructions, :archivedAt
+            FROM customer_orders o LEFT JOIN restaurant_tables t ON t.id = o.restaurant_table_id
+            WHERE o.id IN (:ids)""";
+
+    private static final String ARCHIVE_ITEMS = """
+            INSERT INTO archived_order_items (id, archive_month, order_id, menu_item_id, menu_item_name, quantity,
+                price_paise, special_instructions)
+            SELECT oi.id, YEAR(o.created_at) * 100 + MONTH(o.created_at), oi.customer_order_id, oi.menu_item_id,
+                m.name, oi.quantity, oi.price_paise, oi.special_instructions
+            FROM order_items oi
+                JOIN customer_orders o ON o.id = oi.customer_order_id
+                JOIN menu_items m ON m.id = oi.menu_item_id
+            WHERE oi.customer_order_id IN (:ids)""";
+
+    private static final List<String> PARTITIONED_TABLES = List.of("archived_orders", "archived_order_items");
+
+    private static final String SELECT_PARTITIONS = """
+            SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :table AND PARTITION_NAME IS NOT NULL""";
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("uuuuMM");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.archive.min-age-days:90}")
+    private int minAgeDays;
+
+    @Value("${orders.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${orders.archive.throttle-ms:200}")
+    private long throttleMs;
+
+    @Value("${orders.archive.partition-months-ahead:12}")
+    private int partitionMonthsAhead;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        archiveOlderThan(LocalDateTime.now().minusDays(minAgeDays));
+    }
+
+    @Scheduled(cron = "${orders.archive.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        String database = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equals(database)) {
+            return;
+        }
+
+        YearMonth through = YearMonth.now().plusMonths(partitionMonthsAhead);
+        for (String table : PARTITIONED_TABLES) {
+            List<String> partitions = jdbcTemplate.queryForList(SELECT_PARTITIONS,
+                    new MapSqlParameterSource("table", table), String.class);
+            splitCatchAll(table, partitions, through).ifPresent(ddl -> {
+                jdbcTemplate.getJdbcTemplate().execute(ddl);
+                log.info("Added monthly partitions to {} through {}", table, through);
+            });
+        }
+    }
+
+    /**
+     * The statement that splits {@code pmax} into one partition per month after the latest
+     * existing one, up to and including {@code through}; empty if nothing is missing or the
+     * table is not laid out as migration 004 creates it.
+     */
+    static Optional<String> splitCatchAll(String table, Collection<String> partitions, YearMonth through) {
+        if (!partitions.contains("pmax")) {
+            return Optional.empty();
+        }
+        Optional<YearMonth> latest = partitions.stream()
+                .filter(name -> name.matches("p\\d{6}"))
+                .map(name -> YearMonth.parse(name.substring(1), PARTITION_MONTH))
+                .max(Comparator.naturalOrder());
+        if (latest.isEmpty() || !latest.get().isBefore(through)) {
+            return Optional.empty();
+        }
+
+        StringBuilder ddl = new StringBuilder("ALTER TABLE ").append(table).append(" REORGANIZE PARTITION pmax INTO (");
+        for (YearMonth month = latest.get().plusMonths(1); !month.isAfter(through); month = month.plusMonths(1)) {
+            ddl.append("PARTITION p").append(month.format(PARTITION_MONTH))
+                    .append(" VALUES LESS THAN (").append(month.plusMonths(1).format(PARTITION_MONTH)).append("), ");
+        }
+        return Optional.of(ddl.append("PARTITION pmax VALUES LESS THAN MAXVALUE)").toString());
+    }
+
+    /**
+     * Archives every COMPLETED or CANCELLED order created before {@code cutoff}.
+     *
+     * @return number of orders archived, or 0 if a run is already in progress
+     */
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Order archival already running; skipping");
+            return 0;
+        }
+        try {
+            int total = 0;
+            while (true) {
+                Integer archived = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                if (archived == null || archived == 0) {
+                    break;
+                }
+                total += archived;
+                if (archived < chunkSize || !pause()) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Archived {} orders created before {}", total, cutoff);
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_CHUNK,
+                new MapSqlParameterSource("cutoff", cutoff).addValue("limit", chunkSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                .addValue("archivedAt", LocalDateTime.now());
+        jdbcTemplate.update(ARCHIVE_ORDERS, params);
+        jdbcTemplate.update(ARCHIVE_ITEMS, params);
+        // Bookings outlive the orders they seated; drop the link rather than the booking
+        jdbcTemplate.update("UPDATE table_bookings SET order_id = NULL WHERE order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM order_items WHERE customer_order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM customer_orders WHERE id IN (:ids)", params);
+        return ids.size();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(throttleMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OrderStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time an order spends between lifecycle stamps ({@code orders.stage.duration}, tagged by stage
+ * and order type) and how far the kitchen's estimate was off ({@code orders.kpt.error}, in
+ * minutes, tagged late or early).
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderLifecycleMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Call once the transition to {@code newStatus} has stamped the order. Samples are recorded
+     * when the surrounding transaction commits, so optimistic-lock retries and rollbacks are not
+     * counted.
+     */
+    public void recordTransition(CustomerOrder order, OrderStatus newStatus) {
+        List<Runnable> samples = new ArrayList<>(2);
+        switch (newStatus) {
+            case CONFIRMED -> stage(samples, order, "created_to_confirmed", order.getCreatedAt(), order.getConfirmedAt());
+            case IN_KITCHEN -> stage(samples, order, "confirmed_to_kitchen", order.getConfirmedAt(),
+                    order.getSentToKitchenAt());
+            case READY_TO_SERVE -> {
+                stage(samples, order, "kitchen_to_ready", order.getSentToKitchenAt(), order.getReadyAt());
+                kptError(samples, order);
+            }
+            case SERVED -> stage(samples, order, "ready_to_served", order.getReadyAt(), order.getServedAt());
+            default -> {
+            }
+        }
+        if (samples.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    samples.forEach(Runnable::run);
+                }
+            });
+        } else {
+            samples.forEach(Runnable::run);
+        }
+    }
+
+    private void stage(List<Runnable> samples, CustomerOrder order, String stage, LocalDateTime from,
+            LocalDateTime to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            return;
+        }
+        Duration elapsed = Duration.between(from, to);
+        Timer timer = Timer.builder("orders.stage.duration")
+                .description("Time between consecutive order lifecycle stages")
+                .tag("stage", stage)
+                .tag("type", String.valueOf(order.getOrderType()))
+                .register(meterRegistry);
+        samples.add(() -> timer.record(elapsed));
+    }
+
+    private void kptError(List<Runnable> samples, CustomerOrder order) {
+        if (order.getSentToKitchenAt() == null || order.getReadyAt() == null || order.getEstimatedKptMinutes() == null) {
+            return;
+        }
+        double actualMinutes = Duration.between(order.getSentToKitchenAt(), order.getReadyAt()).toMillis() / 60_000.0;
+        double error = actualMinutes - order.getEstimatedKptMinutes();
+        // Summaries drop negative samples, so the sign becomes a tag
+        DistributionSummary summary = DistributionSummary.builder("orders.kpt.error")
+                .description("Actual minus estimated kitchen preparation time")
+                .baseUnit("minutes")
+                .tag("direction", error > 0 ? "late" : "early")
+                .register(meterRegistry);
+        samples.add(() -> summary.record(Math.abs(error)));
+    }
+}
@@ -1,28 +1,48 @@
 package com.khanabook.pos.service;
 
 import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.request.OrderSyncRequest;
 import com.khanabook.pos.dto.request.QrOrderRequest;
+import com.khanabook.pos.dto.response.BulkStatusResponse;
+import com.khanabook.pos.dto.response.CursorPage;
 import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.dto.response.OrderSyncResponse;
 import com.khanabook.pos.model.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface OrderService {
 
 	OrderResponse createOrder(OrderRequest request);
 
 	OrderResponse createQrOrder(QrOrderRequest request);
 
+	OrderSyncResponse syncOrders(OrderSyncRequest request);
+
 	OrderResponse getOrderById(Long id);
 
 	Page<OrderResponse> getAllOrders(Pageable pageable);
 
 	Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable);
 
+	CursorPage<OrderResponse> getOrdersPage(String cursor, int size);
+
+	CursorPage<OrderResponse> getOrdersPageByStatus(OrderStatus status, String cursor, int size);
+
 	OrderResponse updateOrder(Long id, OrderRequest request);
 
 	OrderResponse updateOrderStatus(Long id, OrderStatus newStatus);
 
+	BulkStatusResponse updateOrderStatuses(List<Long> orderIds, OrderStatus newStatus);
+
+	/**
+	 * Locks a QR order whose edit window has passed and moves it on to {@code advanceTo}
+	 * (PENDING, CONFIRMED or IN_KITCHEN). Returns false when there was nothing to lock.
+	 */
+	boolean lockExpiredQrOrder(Long id, OrderStatus advanceTo);
+
 	void cancelOrder(Long id);
 
 	void sendWhatsAppBill(Long id);
@@ -0,0 +1,127 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.event.QrOrderPlacedEvent;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.util.HashedTimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Locks each QR order the moment its edit window closes instead of leaving it to be recomputed
+ * on every read, and optionally moves it on to CONFIRMED or IN_KITCHEN so the kitchen picks it
+ * up without a waiter confirming by hand. Timers live in memory and are rebuilt from open edit
+ * windows in the database at startup; locking is idempotent, so a timer armed twice (or on two
+ * instances) does no harm.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QrEditWindowScheduler {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final CustomerOrderRepository orderRepository;
+    private final OrderService orderService;
+
+    @Value("${orders.qr.auto-lock:true}")
+    private boolean enabled;
+
+    @Value("${orders.qr.auto-advance:PENDING}")
+    private OrderStatus autoAdvance;
+
+    @Value("${orders.qr.timer-tick-ms:100}")
+    private long tickMs;
+
+    @Value("${orders.qr.timer-wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${orders.qr.lock-workers:2}")
+    private int lockWorkers;
+
+    private HashedTimerWheel<Long> wheel;
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void start() {
+        if (!EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.IN_KITCHEN).contains(autoAdvance)) {
+            throw new IllegalStateException(
+                    "orders.qr.auto-advance must be PENDING, CONFIRMED or IN_KITCHEN, not " + autoAdvance);
+        }
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(lockWorkers);
+        executor.setMaxPoolSize(lockWorkers);
+        executor.setThreadNamePrefix("qr-edit-lock-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        // The wheel thread only hands expired ids to the pool; locking needs a transaction
+        wheel = new HashedTimerWheel<>("qr-edit-window", Duration.ofMillis(tickMs), wheelSize,
+                id -> executor.execute(() -> lock(id)));
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.close();
+        executor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<Object[]> windows = orderRepository.findOpenEditWindows(OrderStatus.PENDING);
+        for (Object[] row : windows) {
+            schedule((Long) row[0], (LocalDateTime) row[1]);
+        }
+        log.info("Armed {} QR edit-window timers from the database", windows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQrOrderPlaced(QrOrderPlacedEvent event) {
+        if (enabled && event.editableUntil() != null) {
+            schedule(event.orderId(), event.editableUntil());
+        }
+    }
+
+    public int pendingTimers() {
+        return wheel.size();
+    }
+
+    private void schedule(Long orderId, LocalDateTime editableUntil) {
+        wheel.schedule(orderId, editableUntil.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private void lock(Long orderId) {
+        try {
+            if (orderService.lockExpiredQrOrder(orderId, autoAdvance)) {
+                log.debug("Locked QR order {} after its edit window closed", orderId);
+            }
+        } catch (DataAccessException e) {
+            // Lost every optimistic-lock retry or the database is unreachable; try again shortly
+            log.warn("Could not lock QR order {}, retrying in {}: {}", orderId, RETRY_DELAY, e.getMessage());
+            wheel.schedule(orderId, Instant.now().plus(RETRY_DELAY));
+        } catch (RuntimeException e) {
+            // Anything else would be swallowed by the pool and leave the order editable for good
+            log.error("Failed to lock QR order {}, retrying in {}", orderId, RETRY_DELAY, e);
+            wheel.schedule(orderId, Instant.now().plus(RETRY_DELAY));
+        }
+    }
+}
@@ -4,14 +4,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
-import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.dto.response.SalesRecord;
 import com.khanabook.pos.model.OrderType;
 
 public interface ReportService {
 
-	List<CustomerOrder> getSalesBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
+	List<SalesRecord> getSalesBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
 
-	Double getTotalRevenueBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
+	long getTotalRevenuePaiseBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
 
 	Map<String, Long> getOrderCountByStatus();
 
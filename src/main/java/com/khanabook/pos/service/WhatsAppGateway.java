@@ -0,0 +1,10 @@
+package com.khanabook.pos.service;
+
+/**
+ * Delivers a single WhatsApp message. Called from the outbox workers, never inside a
+ * database transaction; a thrown exception means the message was not accepted.
+ */
+public interface WhatsAppGateway {
+
+    void send(String phone, String message);
+}
@@ -0,0 +1,193 @@
+package com.khanabook.pos.service;
+
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OutboxStatus;
+import com.khanabook.pos.model.WhatsAppOutboxMessage;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.repository.WhatsAppOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Drains the WhatsApp outbox on a small, bounded worker pool. Each poll claims at most as many
+ * due messages as the pool can take, sends them outside any transaction and records the outcome
+ * in a short transaction of its own. Failures back off exponentially until the attempt limit,
+ * after which the message is parked as {@link OutboxStatus#DEAD}.
+ * <p>
+ * A claim is a lease of {@code whatsapp.outbox.lease-ms}. Messages whose lease ran out, because
+ * the instance holding them crashed or was stopped, are claimed again by whichever instance polls
+ * next, so restarting one instance never re-sends messages another is still delivering. The lease
+ * must comfortably exceed the gateway's send timeout.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WhatsAppOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WhatsAppOutboxRepository outboxRepository;
+    private final CustomerOrderRepository orderRepository;
+    private final WhatsAppGateway gateway;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticLockRetry optimisticLockRetry;
+
+    @Value("${whatsapp.outbox.workers:4}")
+    private int workers;
+
+    @Value("${whatsapp.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${whatsapp.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${whatsapp.outbox.backoff-initial-ms:2000}")
+    private long backoffInitialMs;
+
+    @Value("${whatsapp.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${whatsapp.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("whatsapp-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        int capacity = freeCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        for (Long id : claimDue(capacity)) {
+            try {
+                executor.execute(() -> deliver(id));
+            } catch (RejectedExecutionException e) {
+                release(id);
+            }
+        }
+    }
+
+    private int freeCapacity() {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        int idleWorkers = Math.max(0, workers - pool.getActiveCount());
+        return Math.min(batchSize, pool.getQueue().remainingCapacity() + idleWorkers);
+    }
+
+    private List<Long> claimDue(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = now.plusNanos(leaseMs * 1_000_000);
+            List<Long> claimed = new ArrayList<>();
+            for (Long id : outboxRepository.findClaimableIds(now, PageRequest.of(0, limit))) {
+                if (outboxRepository.claim(id, now, until) == 1) {
+                    claimed.add(id);
+                }
+            }
+            return claimed;
+        });
+    }
+
+    private void deliver(Long id) {
+        WhatsAppOutboxMessage message = outboxRepository.findById(id).orElse(null);
+        if (message == null || message.getStatus() != OutboxStatus.IN_FLIGHT) {
+            return;
+        }
+
+        try {
+            gateway.send(message.getPhone(), message.getMessage());
+        } catch (RuntimeException e) {
+            recordFailure(id, e);
+            return;
+        }
+        recordDelivery(id);
+    }
+
+    private void recordDelivery(Long id) {
+        optimisticLockRetry.run(() -> {
+            WhatsAppOutboxMessage message = outboxRepository.findById(id).orElseThrow();
+            message.setStatus(OutboxStatus.SENT);
+            message.setClaimedUntil(null);
+            message.setAttempts(message.getAttempts() + 1);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+
+            CustomerOrder order = orderRepository.findById(message.getOrderId()).orElse(null);
+            if (order != null) {
+                order.setWhatsappBillSent(true);
+            }
+        });
+    }
+
+    private void recordFailure(Long id, RuntimeException error) {
+        transactionTemplate.executeWithoutResult(status -> {
+            WhatsAppOutboxMessage message = outboxRepository.findById(id).orElseThrow();
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setClaimedUntil(null);
+            message.setLastError(truncate(error.getMessage()));
+
+            if (attempts >= maxAttempts) {
+                message.setStatus(OutboxStatus.DEAD);
+                log.error("WhatsApp message {} for order {} is dead after {} attempts: {}",
+                        id, message.getOrderId(), attempts, error.getMessage());
+            } else {
+                message.setStatus(OutboxStatus.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMillis(attempts) * 1_000_000));
+                log.warn("WhatsApp message {} failed (attempt {}): {}", id, attempts, error.getMessage());
+            }
+        });
+    }
+
+    private void release(Long id) {
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(id).ifPresent(message -> {
+            message.setStatus(OutboxStatus.PENDING);
+            message.setClaimedUntil(null);
+        }));
+    }
+
+    // Exponential backoff capped at backoffMaxMs, jittered over its upper half
+    private long backoffMillis(int attempts) {
+        long ceiling = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts - 1, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,29 +1,46 @@
 package com.khanabook.pos.service;
 
 import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OutboxStatus;
+import com.khanabook.pos.model.WhatsAppOutboxMessage;
+import com.khanabook.pos.repository.WhatsAppOutboxRepository;
+import com.khanabook.pos.util.Money;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/**
+ * Queues WhatsApp bills in the outbox table. Must be called inside the order's transaction so
+ * the message is stored if and only if the order change commits; delivery happens later in
+ * {@link WhatsAppOutboxDispatcher}. The caller must hold the order locked
+ * ({@code CustomerOrderRepository.findLockedById}), or two concurrent calls can both pass the
+ * duplicate check.
+ */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class WhatsAppService {
 
-        @Value("${whatsapp.api.url:}")
-        private String apiUrl;
-
-        @Value("${whatsapp.api.key:}")
-        private String apiKey;
-
-        public void sendBill(CustomerOrder order) {
-                // Implement WhatsApp Business API integration
-                // This is a placeholder implementation
+        private final WhatsAppOutboxRepository outboxRepository;
 
-                String message = buildBillMessage(order);
-                log.info("Sending WhatsApp bill to {}: {}", order.getCustomerPhone(), message);
+        /**
+         * @return false if a bill for this order is already waiting for delivery
+         */
+        public boolean enqueueBill(CustomerOrder order) {
+                if (outboxRepository.existsByOrderIdAndStatusIn(order.getId(),
+                                List.of(OutboxStatus.PENDING, OutboxStatus.IN_FLIGHT))) {
+                        log.debug("WhatsApp bill for order {} is already queued", order.getId());
+                        return false;
+                }
 
-                // TODO: Integrate with actual WhatsApp Business API
-                // Example: Use Twilio, MessageBird, or WhatsApp Cloud API
+                outboxRepository.save(WhatsAppOutboxMessage.builder()
+                                .orderId(order.getId())
+                                .phone(order.getCustomerPhone())
+                                .message(buildBillMessage(order))
+                                .build());
+                return true;
         }
 
         private String buildBillMessage(CustomerOrder order) {
@@ -38,11 +55,11 @@ public class WhatsAppService {
                 order.getOrderItems().forEach(item -> {
                         message.append("- ").append(item.getMenuItem().getName())
                                         .append(" x").append(item.getQuantity())
-                                        .append(" = ₹").append(item.getSubtotal())
+                                        .append(" = ₹").append(Money.format(item.getSubtotalPaise()))
                                         .append("");
                 });
 
-                message.append("Total: ₹").append(order.getTotalAmount());
+                message.append("Total: ₹").append(Money.format(order.getTotalAmountPaise()));
                 message.append("Visit again!");
 
                 return message.toString();
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,12 +13,13 @@ import org.springframework.transaction.annotation.Transactional;
 import com.khanabook.pos.dto.request.AuthRequest;
 import com.khanabook.pos.dto.request.RegisterRequest;
 import com.khanabook.pos.dto.response.AuthResponse;
-import com.khanabook.pos.exception.ResourceNotFoundException;
 import com.khanabook.pos.model.Role;
 import com.khanabook.pos.model.User;
 import com.khanabook.pos.repository.UserRepository;
 import com.khanabook.pos.security.JwtUtil;
+import com.khanabook.pos.security.TokenDenylist;
 import com.khanabook.pos.service.AuthService;
+import com.khanabook.pos.service.LastLoginRecorder;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,6 +31,8 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenDenylist tokenDenylist;
+    private final LastLoginRecorder lastLoginRecorder;
 
     @Override
     @Transactional
@@ -58,11 +62,12 @@ public class AuthServiceImpl implements AuthService {
                 user.getRole().name());
     }
 
+    // Not transactional: no connection is held while the password is hashed
     @Override
-    @Transactional
     public AuthResponse authenticate(AuthRequest request) {
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getUsername(),
                             request.getPassword()));
@@ -70,13 +75,12 @@ public class AuthServiceImpl implements AuthService {
             throw new BadCredentialsException("Invalid username or password");
         }
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        User user = (User) authentication.getPrincipal();
+        lastLoginRecorder.record(user.getId(), LocalDateTime.now());
 
         String token = jwtUtil.generateToken(user);
+        // Users created since the last denylist refresh are then known here without a lookup
+        tokenDenylist.update(user.getId(), user.getTokenVersion());
 
         return new AuthResponse(token, "Bearer", user.getId(), user.getUsername(), user.getEmail(),
                 user.getRole().name());
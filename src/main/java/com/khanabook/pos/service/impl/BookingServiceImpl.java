@@ -1,6 +1,7 @@
 package com.khanabook.pos.service.impl;
 
 import com.khanabook.pos.dto.request.BookingRequest;
+import com.khanabook.pos.dto.response.CursorPage;
 import com.khanabook.pos.exception.InvalidOrderStateException;
 import com.khanabook.pos.exception.ResourceNotFoundException;
 import com.khanabook.pos.model.TableBooking;
@@ -10,8 +11,11 @@ import com.khanabook.pos.model.TableStatus;
 import com.khanabook.pos.repository.RestaurantTableRepository;
 import com.khanabook.pos.repository.TableBookingRepository;
 import com.khanabook.pos.service.BookingService;
+import com.khanabook.pos.service.OptimisticLockRetry;
+import com.khanabook.pos.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +29,7 @@ public class BookingServiceImpl implements BookingService {
 
     private final TableBookingRepository tableBookingRepository;
     private final RestaurantTableRepository restaurantTableRepository;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @Override @Transactional
     public TableBooking createBooking(BookingRequest bookingRequest) {
@@ -63,22 +68,43 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TableBooking> getAllBookings(Pageable pageable) {
         return tableBookingRepository.findAll(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TableBooking> getBookingsPage(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<TableBooking> rows = tableBookingRepository.findPageAfter(after.createdAt(), after.id(),
+                PageRequest.of(0, KeysetCursor.checkPageSize(size) + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<TableBooking> page = hasNext ? rows.subList(0, size) : rows;
+        TableBooking last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasNext ? new KeysetCursor(last.getCreatedAt(), last.getId()).encode() : null;
+        return new CursorPage<>(page, page.size(), hasNext, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<TableBooking> getBookingsByStatus(BookingStatus status, Pageable pageable) {
         return tableBookingRepository.findByStatus(status, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TableBooking> getBookingsBetween(LocalDateTime start, LocalDateTime end) {
         return tableBookingRepository.findByBookingDateTimeBetween(start, end);
     }
 
-    @Override @Transactional
+    @Override
     public TableBooking updateBookingStatus(Long id, BookingStatus newStatus) {
+        return optimisticLockRetry.execute(() -> doUpdateBookingStatus(id, newStatus));
+    }
+
+    private TableBooking doUpdateBookingStatus(Long id, BookingStatus newStatus) {
         TableBooking booking = tableBookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Table Booking not found with id: " + id));
 
@@ -141,12 +167,12 @@ public class BookingServiceImpl implements BookingService {
         return tableBookingRepository.save(booking);
     }
 
-    @Override @Transactional
+    @Override
     public TableBooking cancelBooking(Long id) {
         return updateBookingStatus(id, BookingStatus.CANCELLED);
     }
 
-    @Override @Transactional
+    @Override
     public TableBooking confirmBooking(Long id) {
         return updateBookingStatus(id, BookingStatus.CONFIRMED);
     }
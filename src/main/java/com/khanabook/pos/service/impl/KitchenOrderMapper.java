@@ -0,0 +1,40 @@
+package com.khanabook.pos.service.impl;
+
+import com.khanabook.pos.dto.response.KitchenOrderResponse;
+import com.khanabook.pos.model.CustomerOrder;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class KitchenOrderMapper {
+
+    private KitchenOrderMapper() {
+    }
+
+    public static KitchenOrderResponse toResponse(CustomerOrder order) {
+        KitchenOrderResponse response = new KitchenOrderResponse();
+        response.setOrderId(order.getId());
+        response.setTableName(
+                order.getRestaurantTable() != null ? order.getRestaurantTable().getName() : "Takeaway/Delivery");
+        response.setOrderType(order.getOrderType());
+        response.setStatus(order.getStatus());
+        response.setCreatedAt(order.getCreatedAt());
+        response.setSentToKitchenAt(order.getSentToKitchenAt());
+        response.setEstimatedKptMinutes(order.getEstimatedKptMinutes());
+        response.setEstimatedReadyTime(order.getEstimatedReadyTime());
+        response.setSpecialInstructions(order.getSpecialInstructions());
+
+        List<KitchenOrderResponse.KitchenItemDto> items = order.getOrderItems().stream()
+                .map(item -> {
+                    KitchenOrderResponse.KitchenItemDto dto = new KitchenOrderResponse.KitchenItemDto();
+                    dto.setMenuItemName(item.getMenuItem().getName());
+                    dto.setQuantity(item.getQuantity());
+                    dto.setSpecialInstructions(item.getSpecialInstructions());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+        response.setItems(items);
+        return response;
+    }
+}
@@ -1,79 +1,67 @@
 package com.khanabook.pos.service.impl;
 
+import com.khanabook.pos.dto.response.BulkStatusResponse;
+import com.khanabook.pos.dto.response.KitchenBoardCheck;
 import com.khanabook.pos.dto.response.KitchenOrderResponse;
-import com.khanabook.pos.exception.InvalidOrderStateException;
+import com.khanabook.pos.dto.response.KptIndexStats;
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.event.KitchenOrderEvent;
 import com.khanabook.pos.exception.ResourceNotFoundException;
 import com.khanabook.pos.model.CustomerOrder;
 import com.khanabook.pos.model.OrderStatus;
 import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.service.KitchenBoard;
+import com.khanabook.pos.service.KitchenEventPublisher;
+import com.khanabook.pos.service.KitchenEventStream;
 import com.khanabook.pos.service.KitchenService;
+import com.khanabook.pos.service.KptIndex;
+import com.khanabook.pos.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class KitchenServiceImpl implements KitchenService {
 
     private final CustomerOrderRepository orderRepository;
+    private final KptIndex kptIndex;
+    private final KitchenEventPublisher kitchenEventPublisher;
+    private final KitchenEventStream kitchenEventStream;
+    private final KitchenBoard kitchenBoard;
+    private final OrderService orderService;
 
     @Override
-    @Transactional
     public List<KitchenOrderResponse> getPendingOrders() {
-        List<CustomerOrder> orders = orderRepository.findByStatusInWithItems(
-                Arrays.asList(OrderStatus.CONFIRMED, OrderStatus.IN_KITCHEN));
-
-        return orders.stream()
-                .map(this::convertToKitchenResponse)
-                .sorted(Comparator.comparing(KitchenOrderResponse::getCreatedAt))
-                .collect(Collectors.toList());
+        return kitchenBoard.pending();
     }
 
     @Override
-    @Transactional
     public List<KitchenOrderResponse> getActiveOrders() {
-        List<CustomerOrder> orders = orderRepository.findByStatusInWithItems(
-                Arrays.asList(OrderStatus.IN_KITCHEN, OrderStatus.READY_TO_SERVE));
-
-        return orders.stream()
-                .map(this::convertToKitchenResponse)
-                .collect(Collectors.toList());
+        return kitchenBoard.active();
     }
 
     @Override
-    @Transactional
-    public CustomerOrder markOrderReady(Long orderId) {
-        CustomerOrder order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        if (order.getStatus() != OrderStatus.IN_KITCHEN) {
-            throw new InvalidOrderStateException("Order is not in kitchen");
-        }
-
-        order.setStatus(OrderStatus.READY_TO_SERVE);
-        order.setReadyAt(LocalDateTime.now());
+    public KitchenBoardCheck checkBoard(boolean repair) {
+        return kitchenBoard.check(repair);
+    }
 
-        // Calculate actual KPT
-        if (order.getSentToKitchenAt() != null) {
-            long actualMinutes = ChronoUnit.MINUTES.between(
-                    order.getSentToKitchenAt(),
-                    order.getReadyAt());
-            order.setActualKptMinutes((int) actualMinutes);
-        }
+    @Override
+    public OrderResponse markOrderReady(Long orderId) {
+        return orderService.updateOrderStatus(orderId, OrderStatus.READY_TO_SERVE);
+    }
 
-        return orderRepository.save(order);
+    @Override
+    public BulkStatusResponse markOrdersReady(List<Long> orderIds) {
+        return orderService.updateOrderStatuses(orderIds, OrderStatus.READY_TO_SERVE);
     }
 
     @Override
     @Transactional
-    public CustomerOrder updateKpt(Long orderId, Integer estimatedMinutes) {
+    public OrderResponse updateKpt(Long orderId, Integer estimatedMinutes) {
         CustomerOrder order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
@@ -84,33 +72,23 @@ public class KitchenServiceImpl implements KitchenService {
         order.setEstimatedKptMinutes(estimatedMinutes);
         order.calculateEstimatedReadyTime();
 
-        return orderRepository.save(order);
+        order = orderRepository.save(order);
+        kitchenEventPublisher.publish(KitchenOrderEvent.Type.KPT_UPDATED, order);
+        return OrderResponseMapper.toResponse(order);
     }
 
-    private KitchenOrderResponse convertToKitchenResponse(CustomerOrder order) {
-        KitchenOrderResponse response = new KitchenOrderResponse();
-        response.setOrderId(order.getId());
-        response.setTableName(
-                order.getRestaurantTable() != null ? order.getRestaurantTable().getName() : "Takeaway/Delivery");
-        response.setOrderType(order.getOrderType());
-        response.setStatus(order.getStatus());
-        response.setCreatedAt(order.getCreatedAt());
-        response.setSentToKitchenAt(order.getSentToKitchenAt());
-        response.setEstimatedKptMinutes(order.getEstimatedKptMinutes());
-        response.setEstimatedReadyTime(order.getEstimatedReadyTime());
-        response.setSpecialInstructions(order.getSpecialInstructions());
-
-        List<KitchenOrderResponse.KitchenItemDto> items = order.getOrderItems().stream()
-                .map(item -> {
-                    KitchenOrderResponse.KitchenItemDto dto = new KitchenOrderResponse.KitchenItemDto();
-                    dto.setMenuItemName(item.getMenuItem().getName());
-                    dto.setQuantity(item.getQuantity());
-                    dto.setSpecialInstructions(item.getSpecialInstructions());
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
-        response.setItems(items);
-        return response;
+    @Override
+    public SseEmitter subscribe(Long lastEventId) {
+        return kitchenEventStream.subscribe(lastEventId);
+    }
+
+    @Override
+    public KptIndexStats getKptIndexStats() {
+        return kptIndex.stats();
+    }
+
+    @Override
+    public KptIndexStats reloadKptIndex() {
+        return kptIndex.reload();
     }
 }
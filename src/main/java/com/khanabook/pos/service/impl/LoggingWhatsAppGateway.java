@@ -0,0 +1,21 @@
+package com.khanabook.pos.service.impl;
+
+import com.khanabook.pos.service.WhatsAppGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Default gateway while no WhatsApp Business provider is configured: every bill is logged and
+ * reported as delivered.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "whatsapp.provider", havingValue = "log", matchIfMissing = true)
+public class LoggingWhatsAppGateway implements WhatsAppGateway {
+
+    @Override
+    public void send(String phone, String message) {
+        log.info("Sending WhatsApp bill to {}: {}", phone, message);
+    }
+}
@@ -6,6 +6,7 @@ import com.khanabook.pos.model.MenuItem;
 import com.khanabook.pos.repository.CategoryRepository;
 import com.khanabook.pos.repository.MenuItemRepository;
 import com.khanabook.pos.service.MenuItemService;
+import com.khanabook.pos.service.MenuPricingSnapshot;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -24,6 +25,7 @@ public class MenuItemServiceImpl implements MenuItemService {
 
     private final MenuItemRepository menuItemRepository;
     private final CategoryRepository categoryRepository;
+    private final MenuPricingSnapshot menuPricingSnapshot;
 
     @Override
     @Transactional
@@ -37,6 +39,7 @@ public class MenuItemServiceImpl implements MenuItemService {
                         "Category not found with id: " + menuItem.getCategory().getId()));
         menuItem.setCategory(category);
         menuItem.setCreatedAt(LocalDateTime.now());
+        menuPricingSnapshot.invalidate();
         return menuItemRepository.save(menuItem);
     }
 
@@ -47,24 +50,28 @@ public class MenuItemServiceImpl implements MenuItemService {
 
     @Override
     @Cacheable("menuItems")
+    @Transactional(readOnly = true)
     public Page<MenuItem> getAllMenuItems(Pageable pageable) {
         return menuItemRepository.findAll(pageable);
     }
 
     @Override
     @Cacheable(value = "menuItems", key = "'available_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Transactional(readOnly = true)
     public Page<MenuItem> getAvailableMenuItems(Pageable pageable) {
         return menuItemRepository.findByAvailableTrue(pageable);
     }
 
     @Override
     @Cacheable(value = "menuItems", key = "'category_' + #categoryId")
+    @Transactional(readOnly = true)
     public List<MenuItem> getMenuItemsByCategoryId(Long categoryId) {
         return menuItemRepository.findByCategoryIdAndAvailableTrue(categoryId);
     }
 
     @Override
     @Cacheable(value = "menuItems", key = "'category_paged_' + #categoryId + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Transactional(readOnly = true)
     public Page<MenuItem> getMenuItemsByCategoryIdPaged(Long categoryId, Pageable pageable) {
         return menuItemRepository.findByCategoryId(categoryId, pageable);
     }
@@ -82,7 +89,7 @@ public class MenuItemServiceImpl implements MenuItemService {
 
         existingMenuItem.setName(updatedMenuItem.getName());
         existingMenuItem.setDescription(updatedMenuItem.getDescription());
-        existingMenuItem.setPrice(updatedMenuItem.getPrice());
+        existingMenuItem.setPricePaise(updatedMenuItem.getPricePaise());
         existingMenuItem.setCategory(category);
         existingMenuItem.setImageLob(updatedMenuItem.getImageLob());
         existingMenuItem.setAvailable(updatedMenuItem.getAvailable());
@@ -90,6 +97,7 @@ public class MenuItemServiceImpl implements MenuItemService {
         existingMenuItem.setVegan(updatedMenuItem.getVegan());
         existingMenuItem.setSpiceLevel(updatedMenuItem.getSpiceLevel());
 
+        menuPricingSnapshot.invalidate();
         return menuItemRepository.save(existingMenuItem);
     }
 
@@ -101,6 +109,7 @@ public class MenuItemServiceImpl implements MenuItemService {
             throw new ResourceNotFoundException("Menu Item not found with id: " + id);
         }
         menuItemRepository.deleteById(id);
+        menuPricingSnapshot.invalidate();
     }
 
     @Override
@@ -110,6 +119,7 @@ public class MenuItemServiceImpl implements MenuItemService {
         MenuItem menuItem = menuItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu Item not found with id: " + id));
         menuItem.setAvailable(available);
+        menuPricingSnapshot.invalidate();
         return menuItemRepository.save(menuItem);
     }
 }
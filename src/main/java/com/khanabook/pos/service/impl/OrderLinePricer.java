@@ -0,0 +1,74 @@
+package com.khanabook.pos.service.impl;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.exception.InvalidOrderItemsException;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderItem;
+import com.khanabook.pos.repository.MenuItemRepository;
+import com.khanabook.pos.service.KptIndex;
+import com.khanabook.pos.service.MenuPricingSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Prices order lines from a menu snapshot and estimates the order's KPT from the in-memory index.
+ * Neither step queries the database: menu items are attached as references only.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderLinePricer {
+
+    private final MenuItemRepository menuItemRepository;
+    private final KptIndex kptIndex;
+
+    public List<OrderItem> createOrderItems(List<OrderItemRequest> items, CustomerOrder order,
+            MenuPricingSnapshot.Snapshot menu) {
+        validateMenuItems(items, menu);
+
+        return items.stream().map(itemRequest -> {
+            MenuPricingSnapshot.MenuPrice menuPrice = menu.get(itemRequest.getMenuItemId());
+            MenuItem menuItem = menuItemRepository.getReferenceById(menuPrice.id());
+
+            return OrderItem.builder().menuItem(menuItem).quantity(itemRequest.getQuantity())
+                    .pricePaise(menuPrice.pricePaise()).specialInstructions(itemRequest.getSpecialInstructions())
+                    .customerOrder(order).build();
+        }).collect(Collectors.toList());
+    }
+
+    public void validateMenuItems(List<OrderItemRequest> items, MenuPricingSnapshot.Snapshot menu) {
+        Set<Long> menuItemIds = items.stream().map(OrderItemRequest::getMenuItemId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // Report every bad line at once instead of failing on the first one
+        List<Long> missing = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Long menuItemId : menuItemIds) {
+            MenuPricingSnapshot.MenuPrice menuPrice = menu.get(menuItemId);
+            if (menuPrice == null) {
+                missing.add(menuItemId);
+            } else if (!menuPrice.available()) {
+                unavailable.add(menuPrice.name());
+            }
+        }
+        if (!missing.isEmpty() || !unavailable.isEmpty()) {
+            throw new InvalidOrderItemsException(missing, unavailable);
+        }
+    }
+
+    public void calculateEstimatedKpt(CustomerOrder order) {
+        int maxKpt = 0;
+
+        for (OrderItem item : order.getOrderItems()) {
+            maxKpt = Math.max(maxKpt, kptIndex.estimatedMinutes(item.getMenuItem().getId()));
+        }
+
+        order.setEstimatedKptMinutes(maxKpt);
+    }
+}
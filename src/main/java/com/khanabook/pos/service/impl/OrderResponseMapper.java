@@ -0,0 +1,78 @@
+package com.khanabook.pos.service.impl;
+
+import com.khanabook.pos.dto.projection.OrderItemView;
+import com.khanabook.pos.dto.projection.OrderSummaryView;
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.util.Money;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class OrderResponseMapper {
+
+    private OrderResponseMapper() {
+    }
+
+    public static OrderResponse toResponse(CustomerOrder order) {
+        OrderResponse response = new OrderResponse();
+        response.setId(order.getId());
+        response.setOrderType(order.getOrderType());
+        response.setStatus(order.getStatus());
+        response.setTotalAmountPaise(order.getTotalAmountPaise());
+        response.setCreatedAt(order.getCreatedAt());
+        response.setEstimatedReadyTime(order.getEstimatedReadyTime());
+        response.setEstimatedKptMinutes(order.getEstimatedKptMinutes());
+        response.setIsEditable(order.isEditAllowed());
+        response.setIsQrOrder(order.getIsQrOrder() != null ? order.getIsQrOrder() : false);
+        response.setWhatsappBillSent(order.getWhatsappBillSent() != null ? order.getWhatsappBillSent() : false);
+
+        if (order.getRestaurantTable() != null) {
+            response.setTableName(order.getRestaurantTable().getName());
+        }
+
+        List<OrderResponse.OrderItemDto> itemDtos = order.getOrderItems().stream().map(item -> {
+            OrderResponse.OrderItemDto dto = new OrderResponse.OrderItemDto();
+            dto.setId(item.getId());
+            dto.setMenuItemName(item.getMenuItem().getName());
+            dto.setQuantity(item.getQuantity());
+            dto.setPricePaise(item.getPricePaise());
+            dto.setSubtotalPaise(item.getSubtotalPaise());
+            dto.setSpecialInstructions(item.getSpecialInstructions());
+            return dto;
+        }).collect(Collectors.toList());
+
+        response.setItems(itemDtos);
+        return response;
+    }
+
+    // Listing path: the same response built from projections, without loading entities
+    public static OrderResponse toResponse(OrderSummaryView view, List<OrderItemView> items) {
+        OrderResponse response = new OrderResponse();
+        response.setId(view.getId());
+        response.setOrderType(view.getOrderType());
+        response.setStatus(view.getStatus());
+        response.setTotalAmountPaise(view.getTotalAmountPaise());
+        response.setCreatedAt(view.getCreatedAt());
+        response.setEstimatedReadyTime(view.getEstimatedReadyTime());
+        response.setEstimatedKptMinutes(view.getEstimatedKptMinutes());
+        response.setIsEditable(CustomerOrder.isEditAllowed(view.getIsEditable(), view.getEditableUntil()));
+        response.setIsQrOrder(view.getIsQrOrder() != null ? view.getIsQrOrder() : false);
+        response.setWhatsappBillSent(view.getWhatsappBillSent() != null ? view.getWhatsappBillSent() : false);
+        response.setTableName(view.getTableName());
+
+        List<OrderResponse.OrderItemDto> itemDtos = items.stream().map(item -> {
+            OrderResponse.OrderItemDto dto = new OrderResponse.OrderItemDto();
+            dto.setId(item.getId());
+            dto.setMenuItemName(item.getMenuItemName());
+            dto.setQuantity(item.getQuantity());
+            dto.setPricePaise(item.getPricePaise());
+            dto.setSubtotalPaise(Money.lineTotal(item.getPricePaise(), item.getQuantity()));
+            dto.setSpecialInstructions(item.getSpecialInstructions());
+            return dto;
+        }).collect(Collectors.toList());
+
+        response.setItems(itemDtos);
+        return response;
+    }
+}
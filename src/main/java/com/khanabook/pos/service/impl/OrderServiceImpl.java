@@ -2,27 +2,51 @@ package com.khanabook.pos.service.impl;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.khanabook.pos.dto.projection.OrderItemView;
+import com.khanabook.pos.dto.projection.OrderSummaryView;
+import com.khanabook.pos.dto.request.OfflineOrderRequest;
 import com.khanabook.pos.dto.request.OrderItemRequest;
 import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.request.OrderSyncRequest;
 import com.khanabook.pos.dto.request.QrOrderRequest;
+import com.khanabook.pos.dto.response.BulkStatusResponse;
+import com.khanabook.pos.dto.response.BulkStatusResult;
+import com.khanabook.pos.dto.response.CursorPage;
 import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.dto.response.OrderSyncResponse;
+import com.khanabook.pos.dto.response.OrderSyncResult;
+import com.khanabook.pos.event.KitchenOrderEvent;
+import com.khanabook.pos.event.QrOrderPlacedEvent;
+import com.khanabook.pos.exception.InvalidOrderItemsException;
 import com.khanabook.pos.exception.InvalidOrderStateException;
 import com.khanabook.pos.exception.OrderNotEditableException;
 import com.khanabook.pos.exception.ResourceNotFoundException;
 import com.khanabook.pos.model.CustomerOrder;
-import com.khanabook.pos.model.KitchenPreparationTime;
-import com.khanabook.pos.model.MenuItem;
 import com.khanabook.pos.model.OrderItem;
 import com.khanabook.pos.model.OrderStatus;
 import com.khanabook.pos.model.OrderType;
@@ -30,11 +54,14 @@ import com.khanabook.pos.model.RestaurantTable;
 import com.khanabook.pos.model.TableStatus;
 import com.khanabook.pos.model.User;
 import com.khanabook.pos.repository.CustomerOrderRepository;
-import com.khanabook.pos.repository.KptRepository;
-import com.khanabook.pos.repository.MenuItemRepository;
 import com.khanabook.pos.repository.RestaurantTableRepository;
+import com.khanabook.pos.service.KitchenEventPublisher;
+import com.khanabook.pos.service.MenuPricingSnapshot;
+import com.khanabook.pos.service.OptimisticLockRetry;
+import com.khanabook.pos.service.OrderLifecycleMetrics;
 import com.khanabook.pos.service.OrderService;
 import com.khanabook.pos.service.WhatsAppService;
+import com.khanabook.pos.util.KeysetCursor;
 
 import lombok.RequiredArgsConstructor;
 
@@ -43,15 +70,26 @@ import lombok.RequiredArgsConstructor;
 public class OrderServiceImpl implements OrderService {
 
 	private final CustomerOrderRepository orderRepository;
-	private final MenuItemRepository menuItemRepository;
 	private final RestaurantTableRepository tableRepository;
 	private final com.khanabook.pos.repository.TableBookingRepository bookingRepository;
-	private final KptRepository kptRepository;
 	private final WhatsAppService whatsAppService;
+	private final MenuPricingSnapshot menuPricingSnapshot;
+	private final OrderLinePricer orderLinePricer;
+	private final TransactionTemplate transactionTemplate;
+	private final OptimisticLockRetry optimisticLockRetry;
+	private final KitchenEventPublisher kitchenEventPublisher;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final OrderLifecycleMetrics orderLifecycleMetrics;
+
+	@Value("${orders.sync.batch-size:25}")
+	private int syncBatchSize;
 
 	@Override
-	@Transactional
 	public OrderResponse createOrder(OrderRequest request) {
+		return optimisticLockRetry.execute(() -> doCreateOrder(request));
+	}
+
+	private OrderResponse doCreateOrder(OrderRequest request) {
 		CustomerOrder order = new CustomerOrder();
 		order.setOrderType(request.getOrderType());
 		order.setStatus(OrderStatus.PENDING);
@@ -65,7 +103,7 @@ public class OrderServiceImpl implements OrderService {
 			if (request.getTableId() == null) {
 				throw new IllegalArgumentException("Table ID is required for dine-in orders");
 			}
-			RestaurantTable table = tableRepository.findById(request.getTableId())
+			RestaurantTable table = tableRepository.findLockedById(request.getTableId())
 					.orElseThrow(() -> new ResourceNotFoundException("Table not found"));
 			order.setRestaurantTable(table);
 			table.setStatus(TableStatus.OCCUPIED);
@@ -90,32 +128,32 @@ public class OrderServiceImpl implements OrderService {
 		}
 
 		// Set created by user
-		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-		if (auth != null && auth.getPrincipal() instanceof User) {
-			order.setCreatedBy((User) auth.getPrincipal());
-		}
+		order.setCreatedBy(currentUser());
 
 		// Add order items
 		List<OrderItem> orderItems = createOrderItems(request.getItems(), order);
 		order.setOrderItems(orderItems);
 
 		// Calculate total
-		double total = orderItems.stream().mapToDouble(OrderItem::getSubtotal).sum();
-		order.setTotalAmount(total);
+		order.setTotalAmountPaise(totalPaise(orderItems));
 
 		// Calculate estimated KPT
-		calculateEstimatedKpt(order);
+		orderLinePricer.calculateEstimatedKpt(order);
 
 		order = orderRepository.save(order);
+		kitchenEventPublisher.publish(KitchenOrderEvent.Type.ORDER_CREATED, order);
 
-		return convertToResponse(order);
+		return OrderResponseMapper.toResponse(order);
 	}
 
 	@Override
-	@Transactional
 	public OrderResponse createQrOrder(QrOrderRequest request) {
+		return optimisticLockRetry.execute(() -> doCreateQrOrder(request));
+	}
+
+	private OrderResponse doCreateQrOrder(QrOrderRequest request) {
 		// Find table by QR token
-		RestaurantTable table = tableRepository.findByQrToken(request.getQrToken())
+		RestaurantTable table = tableRepository.findLockedByQrToken(request.getQrToken())
 				.orElseThrow(() -> new ResourceNotFoundException("Invalid QR code"));
 
 		CustomerOrder order = new CustomerOrder();
@@ -137,37 +175,144 @@ public class OrderServiceImpl implements OrderService {
 		order.setOrderItems(orderItems);
 
 		// Calculate total
-		double total = orderItems.stream().mapToDouble(OrderItem::getSubtotal).sum();
-		order.setTotalAmount(total);
+		order.setTotalAmountPaise(totalPaise(orderItems));
 
 		// Calculate estimated KPT
-		calculateEstimatedKpt(order);
+		orderLinePricer.calculateEstimatedKpt(order);
 
 		order = orderRepository.save(order);
+		kitchenEventPublisher.publish(KitchenOrderEvent.Type.ORDER_CREATED, order);
+		applicationEventPublisher.publishEvent(new QrOrderPlacedEvent(order.getId(), order.getEditableUntil()));
+
+		return OrderResponseMapper.toResponse(order);
+	}
+
+	@Override
+	public OrderSyncResponse syncOrders(OrderSyncRequest request) {
+		List<OfflineOrderRequest> offlineOrders = request.getOrders();
+		Map<UUID, OrderSyncResult> results = new HashMap<>();
+		List<OfflineOrderRequest> accepted = new ArrayList<>();
+
+		// Single lookup pass: previously synced orders, referenced tables and menu prices
+		transactionTemplate.executeWithoutResult(status -> {
+			Set<String> clientOrderIds = offlineOrders.stream()
+					.map(offline -> offline.getClientOrderId().toString()).collect(Collectors.toSet());
+			Map<String, CustomerOrder> alreadySynced = orderRepository.findByClientOrderIdIn(clientOrderIds).stream()
+					.collect(Collectors.toMap(CustomerOrder::getClientOrderId, Function.identity()));
+
+			Set<Long> tableIds = offlineOrders.stream().map(OfflineOrderRequest::getOrder)
+					.filter(order -> order.getOrderType() == OrderType.DINE_IN).map(OrderRequest::getTableId)
+					.filter(Objects::nonNull).collect(Collectors.toSet());
+			Set<Long> knownTableIds = tableRepository.findAllById(tableIds).stream().map(RestaurantTable::getId)
+					.collect(Collectors.toSet());
+
+			MenuPricingSnapshot.Snapshot menu = menuPricingSnapshot.resolve(offlineOrders.stream()
+					.flatMap(offline -> offline.getOrder().getItems().stream()).map(OrderItemRequest::getMenuItemId)
+					.collect(Collectors.toSet()));
+
+			Set<UUID> seen = new HashSet<>();
+			for (OfflineOrderRequest offline : offlineOrders) {
+				UUID clientOrderId = offline.getClientOrderId();
+				OrderRequest order = offline.getOrder();
+				CustomerOrder existing = alreadySynced.get(clientOrderId.toString());
+
+				if (!seen.add(clientOrderId)) {
+					results.putIfAbsent(clientOrderId, rejected(clientOrderId, "Duplicate client order ID in request"));
+				} else if (existing != null) {
+					results.put(clientOrderId, new OrderSyncResult(clientOrderId, OrderSyncResult.Outcome.DUPLICATE,
+							OrderResponseMapper.toResponse(existing), null));
+				} else if (order.getOrderType() == OrderType.DINE_IN && order.getTableId() == null) {
+					results.put(clientOrderId, rejected(clientOrderId, "Table ID is required for dine-in orders"));
+				} else if (order.getOrderType() == OrderType.DINE_IN && !knownTableIds.contains(order.getTableId())) {
+					results.put(clientOrderId, rejected(clientOrderId, "Table not found: " + order.getTableId()));
+				} else {
+					try {
+						orderLinePricer.validateMenuItems(order.getItems(), menu);
+						accepted.add(offline);
+					} catch (InvalidOrderItemsException e) {
+						results.put(clientOrderId, rejected(clientOrderId, e.getMessage()));
+					}
+				}
+			}
+		});
+
+		User createdBy = currentUser();
+		for (int from = 0; from < accepted.size(); from += syncBatchSize) {
+			List<OfflineOrderRequest> batch = accepted.subList(from, Math.min(from + syncBatchSize, accepted.size()));
+			try {
+				transactionTemplate.executeWithoutResult(status -> persistOfflineOrders(batch, createdBy, results));
+			} catch (RuntimeException batchFailure) {
+				// Retry the batch one order at a time so a single bad order can't sink the rest
+				for (OfflineOrderRequest offline : batch) {
+					UUID clientOrderId = offline.getClientOrderId();
+					try {
+						transactionTemplate.executeWithoutResult(
+								status -> persistOfflineOrders(List.of(offline), createdBy, results));
+					} catch (DataIntegrityViolationException e) {
+						// A concurrent sync of the same queue committed this order after our lookup pass
+						OrderSyncResult duplicate = transactionTemplate.execute(status -> orderRepository
+								.findByClientOrderIdIn(List.of(clientOrderId.toString())).stream().findFirst()
+								.map(existing -> new OrderSyncResult(clientOrderId, OrderSyncResult.Outcome.DUPLICATE,
+										OrderResponseMapper.toResponse(existing), null))
+								.orElse(null));
+						results.put(clientOrderId, duplicate != null ? duplicate : rejected(clientOrderId, e.getMessage()));
+					} catch (RuntimeException e) {
+						results.put(clientOrderId, rejected(clientOrderId, e.getMessage()));
+					}
+				}
+			}
+		}
 
-		return convertToResponse(order);
+		List<OrderSyncResult> ordered = offlineOrders.stream().map(OfflineOrderRequest::getClientOrderId).distinct()
+				.map(results::get).collect(Collectors.toList());
+		return new OrderSyncResponse(
+				count(ordered, OrderSyncResult.Outcome.CREATED),
+				count(ordered, OrderSyncResult.Outcome.DUPLICATE),
+				count(ordered, OrderSyncResult.Outcome.REJECTED),
+				ordered);
 	}
 
 	@Override
 	public OrderResponse getOrderById(Long id) {
 		CustomerOrder order = orderRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-		return convertToResponse(order);
+		return OrderResponseMapper.toResponse(order);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<OrderResponse> getAllOrders(Pageable pageable) {
-		return orderRepository.findAll(pageable).map(this::convertToResponse);
+		return toResponses(orderRepository.findSummaries(pageable));
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-		return orderRepository.findByStatus(status, pageable).map(this::convertToResponse);
+		return toResponses(orderRepository.findSummariesByStatus(status, pageable));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<OrderResponse> getOrdersPage(String cursor, int size) {
+		KeysetCursor after = KeysetCursor.decode(cursor);
+		return toCursorPage(orderRepository.findSummariesAfter(after.createdAt(), after.id(),
+				PageRequest.of(0, KeysetCursor.checkPageSize(size) + 1)), size);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<OrderResponse> getOrdersPageByStatus(OrderStatus status, String cursor, int size) {
+		KeysetCursor after = KeysetCursor.decode(cursor);
+		return toCursorPage(orderRepository.findSummariesByStatusAfter(status, after.createdAt(), after.id(),
+				PageRequest.of(0, KeysetCursor.checkPageSize(size) + 1)), size);
 	}
 
 	@Override
-	@Transactional
 	public OrderResponse updateOrder(Long id, OrderRequest request) {
+		return optimisticLockRetry.execute(() -> doUpdateOrder(id, request));
+	}
+
+	private OrderResponse doUpdateOrder(Long id, OrderRequest request) {
 		CustomerOrder order = orderRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
@@ -186,28 +331,71 @@ public class OrderServiceImpl implements OrderService {
 		order.getOrderItems().addAll(newItems);
 
 		// Recalculate total
-		double total = newItems.stream().mapToDouble(OrderItem::getSubtotal).sum();
-		order.setTotalAmount(total);
+		order.setTotalAmountPaise(totalPaise(newItems));
 
 		// Recalculate KPT
-		calculateEstimatedKpt(order);
+		orderLinePricer.calculateEstimatedKpt(order);
 
 		order.setSpecialInstructions(request.getSpecialInstructions());
 
 		order = orderRepository.save(order);
-		return convertToResponse(order);
+		return OrderResponseMapper.toResponse(order);
 	}
 
 	@Override
-	@Transactional
 	public OrderResponse updateOrderStatus(Long id, OrderStatus newStatus) {
+		return optimisticLockRetry.execute(() -> doUpdateOrderStatus(id, newStatus));
+	}
+
+	private OrderResponse doUpdateOrderStatus(Long id, OrderStatus newStatus) {
 		CustomerOrder order = orderRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
-		OrderStatus currentStatus = order.getStatus();
+		applyStatusTransition(order, newStatus);
+
+		order = orderRepository.save(order);
+		kitchenEventPublisher.publish(KitchenOrderEvent.Type.STATUS_CHANGED, order);
+		return OrderResponseMapper.toResponse(order);
+	}
+
+	@Override
+	public BulkStatusResponse updateOrderStatuses(List<Long> orderIds, OrderStatus newStatus) {
+		return optimisticLockRetry.execute(() -> doUpdateOrderStatuses(orderIds, newStatus));
+	}
+
+	private BulkStatusResponse doUpdateOrderStatuses(List<Long> orderIds, OrderStatus newStatus) {
+		List<Long> ids = orderIds.stream().distinct().toList();
+		Map<Long, CustomerOrder> orders = orderRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(CustomerOrder::getId, Function.identity()));
+
+		List<BulkStatusResult> results = new ArrayList<>();
+		List<CustomerOrder> changed = new ArrayList<>();
+		for (Long id : ids) {
+			CustomerOrder order = orders.get(id);
+			if (order == null) {
+				results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.NOT_FOUND, null, "Order not found"));
+				continue;
+			}
+			try {
+				applyStatusTransition(order, newStatus);
+				changed.add(order);
+				results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.UPDATED, newStatus, null));
+			} catch (InvalidOrderStateException e) {
+				results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.REJECTED, order.getStatus(),
+						e.getMessage()));
+			}
+		}
 
-		// Validate status transition
-		validateStatusTransition(currentStatus, newStatus);
+		// One flush for the whole set; with hibernate.order_updates the UPDATEs go out as a JDBC batch
+		for (CustomerOrder order : orderRepository.saveAll(changed)) {
+			kitchenEventPublisher.publish(KitchenOrderEvent.Type.STATUS_CHANGED, order);
+		}
+		return new BulkStatusResponse(changed.size(), ids.size() - changed.size(), results);
+	}
+
+	// Validates the move and stamps its timestamps; rejected transitions leave the order untouched
+	private void applyStatusTransition(CustomerOrder order, OrderStatus newStatus) {
+		validateStatusTransition(order.getStatus(), newStatus);
 
 		order.setStatus(newStatus);
 
@@ -232,31 +420,47 @@ public class OrderServiceImpl implements OrderService {
 			case SERVED -> order.setServedAt(LocalDateTime.now());
 			case COMPLETED -> {
 				order.setCompletedAt(LocalDateTime.now());
-				// Free up table
-				if (order.getRestaurantTable() != null) {
-					RestaurantTable table = order.getRestaurantTable();
-					table.setStatus(TableStatus.AVAILABLE);
-					tableRepository.save(table);
-				}
-			}
-			case CANCELLED -> {
-				// Free up table
-				if (order.getRestaurantTable() != null) {
-					RestaurantTable table = order.getRestaurantTable();
-					table.setStatus(TableStatus.AVAILABLE);
-					tableRepository.save(table);
-				}
+				releaseTableIfIdle(order);
 			}
+			case CANCELLED -> releaseTableIfIdle(order);
 			default -> throw new IllegalArgumentException("Unexpected value: " + newStatus);
 		}
+		orderLifecycleMetrics.recordTransition(order, newStatus);
+	}
+
+	@Override
+	public boolean lockExpiredQrOrder(Long id, OrderStatus advanceTo) {
+		return optimisticLockRetry.execute(() -> doLockExpiredQrOrder(id, advanceTo));
+	}
+
+	// Racing an edit is settled by the version check: whichever commits second retries and re-reads
+	private boolean doLockExpiredQrOrder(Long id, OrderStatus advanceTo) {
+		CustomerOrder order = orderRepository.findById(id).orElse(null);
+		if (order == null || !Boolean.TRUE.equals(order.getIsQrOrder()) || order.getStatus() != OrderStatus.PENDING
+				|| !Boolean.TRUE.equals(order.getIsEditable()) || order.isEditAllowed()) {
+			return false;
+		}
+
+		order.setIsEditable(false);
+		if (advanceTo == OrderStatus.CONFIRMED || advanceTo == OrderStatus.IN_KITCHEN) {
+			applyStatusTransition(order, OrderStatus.CONFIRMED);
+		}
+		if (advanceTo == OrderStatus.IN_KITCHEN) {
+			applyStatusTransition(order, OrderStatus.IN_KITCHEN);
+		}
 
 		order = orderRepository.save(order);
-		return convertToResponse(order);
+		kitchenEventPublisher.publish(order.getStatus() == OrderStatus.PENDING ? KitchenOrderEvent.Type.ORDER_LOCKED
+				: KitchenOrderEvent.Type.STATUS_CHANGED, order);
+		return true;
 	}
 
 	@Override
-	@Transactional
 	public void cancelOrder(Long id) {
+		optimisticLockRetry.run(() -> doCancelOrder(id));
+	}
+
+	private void doCancelOrder(Long id) {
 		CustomerOrder order = orderRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
@@ -269,20 +473,20 @@ public class OrderServiceImpl implements OrderService {
 		}
 
 		order.setStatus(OrderStatus.CANCELLED);
-
-		if (order.getRestaurantTable() != null) {
-			RestaurantTable table = order.getRestaurantTable();
-			table.setStatus(TableStatus.AVAILABLE);
-			tableRepository.save(table);
-		}
+		releaseTableIfIdle(order);
 
 		orderRepository.save(order);
+		kitchenEventPublisher.publish(KitchenOrderEvent.Type.STATUS_CHANGED, order);
 	}
 
 	@Override
-	@Transactional
 	public void sendWhatsAppBill(Long id) {
-		CustomerOrder order = orderRepository.findById(id)
+		optimisticLockRetry.run(() -> doSendWhatsAppBill(id));
+	}
+
+	private void doSendWhatsAppBill(Long id) {
+		// Locked so a double tap cannot pass enqueueBill's duplicate check twice; the loser retries and sees the bill
+		CustomerOrder order = orderRepository.findLockedById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
 		if (order.getCustomerPhone() == null) {
@@ -293,41 +497,106 @@ public class OrderServiceImpl implements OrderService {
 			throw new InvalidOrderStateException("Can only send bill for completed orders");
 		}
 
-		whatsAppService.sendBill(order);
-		order.setWhatsappBillSent(true);
-		orderRepository.save(order);
+		// Delivered by WhatsAppOutboxDispatcher after commit; whatsappBillSent flips once the provider accepts it
+		whatsAppService.enqueueBill(order);
 	}
 
 	// Helper methods
 
-	private List<OrderItem> createOrderItems(List<OrderItemRequest> items, CustomerOrder order) {
-		return items.stream().map(itemRequest -> {
-			MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId()).orElseThrow(
-					() -> new ResourceNotFoundException("Menu item not found: " + itemRequest.getMenuItemId()));
+	// Only free the table when no other order is still running on it
+	private void releaseTableIfIdle(CustomerOrder order) {
+		if (order.getRestaurantTable() == null) {
+			return;
+		}
+		// Locked first: two orders finishing together each still see the other as running, and the
+		// version bump makes the second commit conflict and re-run instead of leaving the table occupied
+		RestaurantTable table = tableRepository.findLockedById(order.getRestaurantTable().getId()).orElse(null);
+		if (table == null) {
+			return;
+		}
+		boolean otherActiveOrders = orderRepository.existsByRestaurantTableIdAndStatusNotInAndIdNot(table.getId(),
+				List.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED), order.getId());
+		if (!otherActiveOrders) {
+			table.setStatus(TableStatus.AVAILABLE);
+			tableRepository.save(table);
+		}
+	}
 
-			if (!menuItem.getAvailable()) {
-				throw new IllegalArgumentException("Menu item not available: " + menuItem.getName());
+	private void persistOfflineOrders(List<OfflineOrderRequest> batch, User createdBy,
+			Map<UUID, OrderSyncResult> results) {
+		Set<Long> tableIds = batch.stream().map(OfflineOrderRequest::getOrder)
+				.filter(request -> request.getOrderType() == OrderType.DINE_IN).map(OrderRequest::getTableId)
+				.filter(Objects::nonNull).collect(Collectors.toSet());
+		Map<Long, RestaurantTable> tables = tableRepository.findAllById(tableIds).stream()
+				.collect(Collectors.toMap(RestaurantTable::getId, Function.identity()));
+		MenuPricingSnapshot.Snapshot menu = menuPricingSnapshot.current();
+
+		List<CustomerOrder> orders = new ArrayList<>();
+		for (OfflineOrderRequest offline : batch) {
+			OrderRequest request = offline.getOrder();
+			CustomerOrder order = new CustomerOrder();
+			order.setClientOrderId(offline.getClientOrderId().toString());
+			order.setOrderType(request.getOrderType());
+			order.setStatus(OrderStatus.PENDING);
+			order.setIsQrOrder(false);
+			order.setIsEditable(true);
+			order.setSpecialInstructions(request.getSpecialInstructions());
+			order.setCustomerPhone(request.getCustomerPhone());
+			order.setCreatedBy(createdBy);
+
+			if (request.getOrderType() == OrderType.DINE_IN) {
+				RestaurantTable table = tables.get(request.getTableId());
+				if (table == null) {
+					// Deleted after the lookup pass; fails the batch so this order is rejected on its own
+					throw new ResourceNotFoundException("Table not found: " + request.getTableId());
+				}
+				table.setStatus(TableStatus.OCCUPIED);
+				order.setRestaurantTable(table);
 			}
 
-			return OrderItem.builder().menuItem(menuItem).quantity(itemRequest.getQuantity()).price(menuItem.getPrice())
-					.specialInstructions(itemRequest.getSpecialInstructions()).customerOrder(order).build();
-		}).collect(Collectors.toList());
+			List<OrderItem> orderItems = orderLinePricer.createOrderItems(request.getItems(), order, menu);
+			order.setOrderItems(orderItems);
+			order.setTotalAmountPaise(totalPaise(orderItems));
+			orderLinePricer.calculateEstimatedKpt(order);
+			orders.add(order);
+		}
+
+		for (CustomerOrder order : orderRepository.saveAll(orders)) {
+			kitchenEventPublisher.publish(KitchenOrderEvent.Type.ORDER_CREATED, order);
+			UUID clientOrderId = UUID.fromString(order.getClientOrderId());
+			results.put(clientOrderId, new OrderSyncResult(clientOrderId, OrderSyncResult.Outcome.CREATED,
+					OrderResponseMapper.toResponse(order), null));
+		}
 	}
 
-	private void calculateEstimatedKpt(CustomerOrder order) {
-		int maxKpt = 0;
+	private OrderSyncResult rejected(UUID clientOrderId, String error) {
+		return new OrderSyncResult(clientOrderId, OrderSyncResult.Outcome.REJECTED, null, error);
+	}
 
-		for (OrderItem item : order.getOrderItems()) {
-			KitchenPreparationTime kpt = kptRepository.findByMenuItemId(item.getMenuItem().getId()).orElse(null);
+	private int count(List<OrderSyncResult> results, OrderSyncResult.Outcome outcome) {
+		return (int) results.stream().filter(result -> result.getOutcome() == outcome).count();
+	}
 
-			if (kpt != null) {
-				maxKpt = Math.max(maxKpt, kpt.getEstimatedMinutes());
-			} else {
-				maxKpt = Math.max(maxKpt, 15); // Default 15 minutes
-			}
+	private User currentUser() {
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		if (auth != null && auth.getPrincipal() instanceof User user) {
+			return user;
 		}
+		return null;
+	}
 
-		order.setEstimatedKptMinutes(maxKpt);
+	private List<OrderItem> createOrderItems(List<OrderItemRequest> items, CustomerOrder order) {
+		Set<Long> menuItemIds = items.stream().map(OrderItemRequest::getMenuItemId).collect(Collectors.toSet());
+		return orderLinePricer.createOrderItems(items, order, menuPricingSnapshot.resolve(menuItemIds));
+	}
+
+	// Exact, and the accumulator stays a primitive long
+	private static long totalPaise(List<OrderItem> items) {
+		long total = 0;
+		for (OrderItem item : items) {
+			total = Math.addExact(total, item.getSubtotalPaise());
+		}
+		return total;
 	}
 
 	private void validateStatusTransition(OrderStatus current, OrderStatus next) {
@@ -345,35 +614,32 @@ public class OrderServiceImpl implements OrderService {
 		}
 	}
 
-	private OrderResponse convertToResponse(CustomerOrder order) {
-		OrderResponse response = new OrderResponse();
-		response.setId(order.getId());
-		response.setOrderType(order.getOrderType());
-		response.setStatus(order.getStatus());
-		response.setTotalAmount(order.getTotalAmount());
-		response.setCreatedAt(order.getCreatedAt());
-		response.setEstimatedReadyTime(order.getEstimatedReadyTime());
-		response.setEstimatedKptMinutes(order.getEstimatedKptMinutes());
-		response.setIsEditable(order.isEditAllowed());
-		response.setIsQrOrder(order.getIsQrOrder() != null ? order.getIsQrOrder() : false);
-		response.setWhatsappBillSent(order.getWhatsappBillSent() != null ? order.getWhatsappBillSent() : false);
-
-		if (order.getRestaurantTable() != null) {
-			response.setTableName(order.getRestaurantTable().getName());
-		}
+	// Listing path: one query for the page of orders, one for all of their items
+	private Page<OrderResponse> toResponses(Page<OrderSummaryView> page) {
+		Map<Long, List<OrderItemView>> itemsByOrder = loadItemViews(page.getContent());
+		return page.map(view -> OrderResponseMapper.toResponse(view,
+				itemsByOrder.getOrDefault(view.getId(), List.of())));
+	}
 
-		List<OrderResponse.OrderItemDto> itemDtos = order.getOrderItems().stream().map(item -> {
-			OrderResponse.OrderItemDto dto = new OrderResponse.OrderItemDto();
-			dto.setId(item.getId());
-			dto.setMenuItemName(item.getMenuItem().getName());
-			dto.setQuantity(item.getQuantity());
-			dto.setPrice(item.getPrice());
-			dto.setSubtotal(item.getSubtotal());
-			dto.setSpecialInstructions(item.getSpecialInstructions());
-			return dto;
-		}).collect(Collectors.toList());
-
-		response.setItems(itemDtos);
-		return response;
+	// Rows were fetched with one extra to learn whether another page follows
+	private CursorPage<OrderResponse> toCursorPage(List<OrderSummaryView> rows, int size) {
+		boolean hasNext = rows.size() > size;
+		List<OrderSummaryView> page = hasNext ? rows.subList(0, size) : rows;
+		Map<Long, List<OrderItemView>> itemsByOrder = loadItemViews(page);
+		List<OrderResponse> content = page.stream()
+				.map(view -> OrderResponseMapper.toResponse(view, itemsByOrder.getOrDefault(view.getId(), List.of())))
+				.collect(Collectors.toList());
+
+		OrderSummaryView last = page.isEmpty() ? null : page.get(page.size() - 1);
+		String nextCursor = hasNext ? new KeysetCursor(last.getCreatedAt(), last.getId()).encode() : null;
+		return new CursorPage<>(content, content.size(), hasNext, nextCursor);
+	}
+
+	private Map<Long, List<OrderItemView>> loadItemViews(List<OrderSummaryView> orders) {
+		if (orders.isEmpty()) {
+			return Map.of();
+		}
+		return orderRepository.findItemViewsByOrderIdIn(orders.stream().map(OrderSummaryView::getId).toList())
+				.stream().collect(Collectors.groupingBy(OrderItemView::getOrderId));
 	}
 }
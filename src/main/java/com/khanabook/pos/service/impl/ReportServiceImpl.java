@@ -1,46 +1,60 @@
 package com.khanabook.pos.service.impl;
 
-import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.dto.response.SalesRecord;
+import com.khanabook.pos.model.ArchivedOrder;
 import com.khanabook.pos.model.OrderStatus;
 import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.repository.ArchivedOrderRepository;
 import com.khanabook.pos.repository.CustomerOrderRepository;
 import com.khanabook.pos.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Reports span both the hot order tables and the archive written by OrderArchiver; they can run on a replica
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ReportServiceImpl implements ReportService {
 
     private final CustomerOrderRepository customerOrderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
 
     @Override
-    public List<CustomerOrder> getSalesBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        return customerOrderRepository.findByCreatedAtBetween(startDate, endDate);
+    public List<SalesRecord> getSalesBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
+        List<SalesRecord> sales = new ArrayList<>(archivedOrderRepository.findSalesRecordsBetween(
+                ArchivedOrder.archiveMonth(startDate), ArchivedOrder.archiveMonth(endDate), startDate, endDate));
+        sales.addAll(customerOrderRepository.findSalesRecordsBetween(startDate, endDate));
+        sales.sort(Comparator.comparing(SalesRecord::getCreatedAt).thenComparing(SalesRecord::getOrderId));
+        return sales;
     }
 
     @Override
-    public Double getTotalRevenueBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        return customerOrderRepository.findByCreatedAtBetween(startDate, endDate).stream()
-                .filter(order -> order.getStatus() == OrderStatus.COMPLETED)
-                .mapToDouble(CustomerOrder::getTotalAmount)
-                .sum();
+    public long getTotalRevenuePaiseBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
+        return Math.addExact(customerOrderRepository.sumCompletedRevenueBetween(startDate, endDate),
+                archivedOrderRepository.sumCompletedRevenueBetween(ArchivedOrder.archiveMonth(startDate),
+                        ArchivedOrder.archiveMonth(endDate), startDate, endDate));
     }
 
     @Override
     public Map<String, Long> getOrderCountByStatus() {
-        return customerOrderRepository.countByStatus().stream()
-                .collect(Collectors.toMap(obj -> ((OrderStatus) obj[0]).name(), obj -> (Long) obj[1]));
+        return Stream.concat(customerOrderRepository.countByStatus().stream(),
+                        archivedOrderRepository.countByStatus().stream())
+                .collect(Collectors.toMap(obj -> ((OrderStatus) obj[0]).name(), obj -> (Long) obj[1], Long::sum));
     }
 
     @Override
     public Map<OrderType, Long> getOrderCountByType() {
-        return customerOrderRepository.countByType().stream()
-                .collect(Collectors.toMap(obj -> (OrderType) obj[0], obj -> (Long) obj[1]));
+        return Stream.concat(customerOrderRepository.countByType().stream(),
+                        archivedOrderRepository.countByType().stream())
+                .collect(Collectors.toMap(obj -> (OrderType) obj[0], obj -> (Long) obj[1], Long::sum));
     }
 }
@@ -0,0 +1,55 @@
+package com.khanabook.pos.service.impl;
+
+import com.khanabook.pos.exception.WhatsAppDeliveryException;
+import com.khanabook.pos.service.WhatsAppGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the WhatsApp provider with configurable latency and failure rate,
+ * for exercising the outbox under slow or flaky delivery.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "whatsapp.provider", havingValue = "stub")
+public class StubWhatsAppGateway implements WhatsAppGateway {
+
+    @Value("${whatsapp.stub.latency-ms:200}")
+    private long latencyMs;
+
+    @Value("${whatsapp.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Override
+    public void send(String phone, String message) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WhatsAppDeliveryException("Interrupted while sending to " + phone, e);
+        }
+
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            failed.incrementAndGet();
+            throw new WhatsAppDeliveryException("Stub provider rejected message to " + phone);
+        }
+        delivered.incrementAndGet();
+        log.debug("Stub delivered WhatsApp message to {}", phone);
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+}
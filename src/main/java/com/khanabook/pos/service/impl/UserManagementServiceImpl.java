@@ -6,6 +6,8 @@ import com.khanabook.pos.exception.ResourceNotFoundException;
 import com.khanabook.pos.model.Role;
 import com.khanabook.pos.model.User;
 import com.khanabook.pos.repository.UserRepository;
+import com.khanabook.pos.security.PrincipalCache;
+import com.khanabook.pos.security.TokenDenylist;
 import com.khanabook.pos.service.UserManagementService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,6 +21,8 @@ public class UserManagementServiceImpl implements UserManagementService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenDenylist tokenDenylist;
 
     @Override @Transactional
     public User createUser(CreateUserRequest request) {
@@ -79,7 +83,10 @@ public class UserManagementServiceImpl implements UserManagementService {
         Role role = Role.valueOf(roleString);
         
         user.setRole(role);
+        revokeTokens(user);
         User updatedUser = userRepository.save(user);
+        principalCache.evict(updatedUser.getUsername());
+        tokenDenylist.update(updatedUser.getId(), updatedUser.getTokenVersion());
         return convertToUserResponse(updatedUser);
     }
 
@@ -89,6 +96,7 @@ public class UserManagementServiceImpl implements UserManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setActive(true);
         User updatedUser = userRepository.save(user);
+        principalCache.evict(updatedUser.getUsername());
         return convertToUserResponse(updatedUser);
     }
 
@@ -97,15 +105,24 @@ public class UserManagementServiceImpl implements UserManagementService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setActive(false);
+        revokeTokens(user);
         User updatedUser = userRepository.save(user);
+        principalCache.evict(updatedUser.getUsername());
+        tokenDenylist.update(updatedUser.getId(), updatedUser.getTokenVersion());
         return convertToUserResponse(updatedUser);
     }
 
     @Override @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found");
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        userRepository.delete(user);
+        principalCache.evict(user.getUsername());
+        tokenDenylist.remove(user.getId());
+    }
+
+    // Tokens issued before a role change or deactivation carry the old version and stop working
+    private void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
     }
 }
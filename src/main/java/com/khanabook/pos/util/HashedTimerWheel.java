@@ -0,0 +1,179 @@
+package com.khanabook.pos.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel holding at most one timer per key. Deadlines hash into one of
+ * {@code wheelSize} buckets, each {@code tick} wide; a single worker thread visits one bucket
+ * per tick and fires the entries whose rounds have run out. Scheduling and cancelling are O(1)
+ * however many timers are pending, and a timer fires at most one tick late, never early.
+ * Expiry callbacks run on the worker thread and must hand real work off elsewhere.
+ */
+@Slf4j
+public final class HashedTimerWheel<K> implements AutoCloseable {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout<K>>> wheel;
+    private final Consumer<K> onExpiry;
+    private final long startNanos = System.nanoTime();
+
+    private final Map<K, Timeout<K>> timeouts = new ConcurrentHashMap<>();
+    // Buckets belong to the worker; other threads hand new timers over through this queue
+    private final Queue<Timeout<K>> incoming = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedTimerWheel(String name, Duration tick, int wheelSize, Consumer<K> onExpiry) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize < 1 || wheelSize > 1 << 20) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and " + (1 << 20));
+        }
+        int buckets = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = tick.toNanos();
+        this.mask = buckets - 1;
+        this.wheel = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.onExpiry = onExpiry;
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Fires {@code key} at {@code deadline}, replacing any timer already held for it. Deadlines in
+     * the past fire on the next tick.
+     */
+    public void schedule(K key, Instant deadline) {
+        long delay = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        Timeout<K> timeout = new Timeout<>(key, System.nanoTime() - startNanos + delay);
+        Timeout<K> previous = timeouts.put(key, timeout);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        incoming.add(timeout);
+    }
+
+    public boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        // Left in its bucket and dropped when the worker next passes it
+        timeout.cancelled = true;
+        return true;
+    }
+
+    public boolean isScheduled(K key) {
+        return timeouts.containsKey(key);
+    }
+
+    public int size() {
+        return timeouts.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (!awaitTick()) {
+                return;
+            }
+            transferIncoming();
+            expire(wheel.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    // Bucket n covers deadlines in [n, n + 1) ticks, so it is only visited once n + 1 ticks have passed
+    private boolean awaitTick() {
+        long wakeAt = startNanos + tickNanos * (tick + 1);
+        long remaining;
+        while ((remaining = wakeAt - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return false;
+                }
+            }
+        }
+        return running;
+    }
+
+    private void transferIncoming() {
+        Timeout<K> timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long dueTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = Math.max(0, (dueTick - tick) / wheel.size());
+            wheel.get((int) (Math.max(dueTick, tick) & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout<K>> bucket) {
+        Iterator<Timeout<K>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<K> timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                iterator.remove();
+                if (timeouts.remove(timeout.key, timeout)) {
+                    fire(timeout.key);
+                }
+            }
+        }
+    }
+
+    private void fire(K key) {
+        try {
+            onExpiry.accept(key);
+        } catch (RuntimeException e) {
+            log.error("Timer callback for {} failed", key, e);
+        }
+    }
+
+    private static final class Timeout<K> {
+
+        private final K key;
+        private final long deadlineNanos;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        private Timeout(K key, long deadlineNanos) {
+            this.key = key;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
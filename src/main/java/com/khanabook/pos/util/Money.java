@@ -0,0 +1,89 @@
+package com.khanabook.pos.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Money is held as a whole number of paise in a {@code long}, so sums and line totals are exact
+ * and need no allocation. Rupee decimals only appear at the edges: JSON, where amounts keep
+ * their existing rupee form via {@link Serializer} and {@link Deserializer}, and text such as
+ * WhatsApp bills.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toPaise(BigDecimal rupees) {
+        try {
+            return rupees.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places: " + rupees);
+        }
+    }
+
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, SCALE);
+    }
+
+    public static long lineTotal(long unitPaise, int quantity) {
+        return Math.multiplyExact(unitPaise, quantity);
+    }
+
+    public static String format(long paise) {
+        return toRupees(paise).toPlainString();
+    }
+
+    /** Writes paise as an exact rupee number, e.g. 15050 as 150.50. */
+    public static final class Serializer extends StdSerializer<Long> {
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long paise, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(toRupees(paise));
+        }
+    }
+
+    /** Reads a rupee number or numeric string into paise without passing through a double. */
+    public static final class Deserializer extends StdDeserializer<Long> {
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            BigDecimal rupees;
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                rupees = parser.getDecimalValue();
+            } else if (token == JsonToken.VALUE_STRING) {
+                try {
+                    rupees = new BigDecimal(parser.getText().trim());
+                } catch (NumberFormatException e) {
+                    return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), "not a valid amount");
+                }
+            } else {
+                return (Long) context.handleUnexpectedToken(Long.class, parser);
+            }
+            try {
+                return toPaise(rupees);
+            } catch (IllegalArgumentException e) {
+                return (Long) context.handleWeirdNumberValue(Long.class, rupees, e.getMessage());
+            }
+        }
+    }
+}
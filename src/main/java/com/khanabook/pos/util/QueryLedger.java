@@ -0,0 +1,66 @@
+package com.khanabook.pos.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * SQL issued on the current thread between {@link #open()} and {@link #close()}: how many
+ * statements, how long JDBC spent executing them, and how often each distinct statement ran.
+ * Fed by Hibernate through {@code QueryCountingInspector} and {@code QueryTimingListener}; a
+ * thread with no open ledger is not tracked at all.
+ */
+public final class QueryLedger {
+
+    private static final ThreadLocal<QueryLedger> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int count;
+    private long executionNanos;
+
+    private QueryLedger() {
+    }
+
+    public static QueryLedger open() {
+        QueryLedger ledger = new QueryLedger();
+        CURRENT.set(ledger);
+        return ledger;
+    }
+
+    public static QueryLedger current() {
+        return CURRENT.get();
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    public void statement(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    public void executed(long nanos) {
+        executionNanos += nanos;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public Duration executionTime() {
+        return Duration.ofNanos(executionNanos);
+    }
+
+    /**
+     * SELECTs that ran at least {@code threshold} times. The same parameterised lookup repeated
+     * per row is the signature of a lazy association loaded one entity at a time.
+     */
+    public Map<String, Integer> repeatedSelects(int threshold) {
+        return statements.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .filter(entry -> entry.getKey().stripLeading().regionMatches(true, 0, "select", 0, 6))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+}
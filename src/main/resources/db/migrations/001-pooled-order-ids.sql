@@ -0,0 +1,12 @@
+-- Switches customer_orders and order_items from IDENTITY to pooled sequence ids (allocation size 50).
+-- MySQL has no sequences, so Hibernate emulates each one with a single-row table.
+-- Run once against an existing database before deploying; fresh databases get these tables from Hibernate.
+-- Seeding past MAX(id) keeps new ids clear of rows written under IDENTITY.
+
+CREATE TABLE IF NOT EXISTS customer_orders_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO customer_orders_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM customer_orders;
+
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO order_items_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM order_items;
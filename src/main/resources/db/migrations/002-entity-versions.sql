@@ -0,0 +1,6 @@
+-- Adds optimistic-lock version columns to the rows that concurrent requests contend on.
+-- Run once against an existing database before deploying; existing rows start at version 0.
+
+ALTER TABLE customer_orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE restaurant_tables ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE table_bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
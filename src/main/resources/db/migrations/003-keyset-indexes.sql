@@ -0,0 +1,6 @@
+-- Composite indexes backing the cursor (keyset) listing endpoints, which page on (created_at, id) DESC.
+-- Run once against an existing database before deploying; fresh databases get these from Hibernate.
+
+CREATE INDEX idx_customer_orders_created ON customer_orders (created_at, id);
+CREATE INDEX idx_customer_orders_status_created ON customer_orders (status, created_at, id);
+CREATE INDEX idx_table_bookings_created ON table_bookings (created_at, id);
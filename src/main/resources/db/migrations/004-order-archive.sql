@@ -0,0 +1,126 @@
+-- History tables for OrderArchiver, range-partitioned by month (archive_month = yyyyMM).
+-- Run before deploying so Hibernate finds the tables and does not create unpartitioned ones.
+-- OrderArchiver.ensurePartitions adds later months by splitting pmax on a schedule, e.g.
+--   ALTER TABLE archived_orders REORGANIZE PARTITION pmax INTO
+--     (PARTITION p202801 VALUES LESS THAN (202802), PARTITION pmax VALUES LESS THAN MAXVALUE);
+-- Whole months can then be dropped or exported with ALTER TABLE ... DROP PARTITION.
+
+CREATE TABLE archived_orders (
+    id BIGINT NOT NULL,
+    archive_month INT NOT NULL,
+    client_order_id VARCHAR(36),
+    order_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_amount DOUBLE NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    confirmed_at DATETIME(6),
+    sent_to_kitchen_at DATETIME(6),
+    ready_at DATETIME(6),
+    served_at DATETIME(6),
+    completed_at DATETIME(6),
+    restaurant_table_id BIGINT,
+    table_name VARCHAR(255),
+    created_by_user_id BIGINT,
+    is_qr_order BIT,
+    estimated_kpt_minutes INT,
+    actual_kpt_minutes INT,
+    whatsapp_bill_sent BIT,
+    customer_phone VARCHAR(255),
+    special_instructions VARCHAR(255),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id, archive_month),
+    KEY idx_archived_orders_created (created_at)
+) ENGINE=InnoDB
+PARTITION BY RANGE (archive_month) (
+    PARTITION p_old VALUES LESS THAN (202501),
+    PARTITION p202501 VALUES LESS THAN (202502),
+    PARTITION p202502 VALUES LESS THAN (202503),
+    PARTITION p202503 VALUES LESS THAN (202504),
+    PARTITION p202504 VALUES LESS THAN (202505),
+    PARTITION p202505 VALUES LESS THAN (202506),
+    PARTITION p202506 VALUES LESS THAN (202507),
+    PARTITION p202507 VALUES LESS THAN (202508),
+    PARTITION p202508 VALUES LESS THAN (202509),
+    PARTITION p202509 VALUES LESS THAN (202510),
+    PARTITION p202510 VALUES LESS THAN (202511),
+    PARTITION p202511 VALUES LESS THAN (202512),
+    PARTITION p202512 VALUES LESS THAN (202601),
+    PARTITION p202601 VALUES LESS THAN (202602),
+    PARTITION p202602 VALUES LESS THAN (202603),
+    PARTITION p202603 VALUES LESS THAN (202604),
+    PARTITION p202604 VALUES LESS THAN (202605),
+    PARTITION p202605 VALUES LESS THAN (202606),
+    PARTITION p202606 VALUES LESS THAN (202607),
+    PARTITION p202607 VALUES LESS THAN (202608),
+    PARTITION p202608 VALUES LESS THAN (202609),
+    PARTITION p202609 VALUES LESS THAN (202610),
+    PARTITION p202610 VALUES LESS THAN (202611),
+    PARTITION p202611 VALUES LESS THAN (202612),
+    PARTITION p202612 VALUES LESS THAN (202701),
+    PARTITION p202701 VALUES LESS THAN (202702),
+    PARTITION p202702 VALUES LESS THAN (202703),
+    PARTITION p202703 VALUES LESS THAN (202704),
+    PARTITION p202704 VALUES LESS THAN (202705),
+    PARTITION p202705 VALUES LESS THAN (202706),
+    PARTITION p202706 VALUES LESS THAN (202707),
+    PARTITION p202707 VALUES LESS THAN (202708),
+    PARTITION p202708 VALUES LESS THAN (202709),
+    PARTITION p202709 VALUES LESS THAN (202710),
+    PARTITION p202710 VALUES LESS THAN (202711),
+    PARTITION p202711 VALUES LESS THAN (202712),
+    PARTITION p202712 VALUES LESS THAN (202801),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+CREATE TABLE archived_order_items (
+    id BIGINT NOT NULL,
+    archive_month INT NOT NULL,
+    order_id BIGINT NOT NULL,
+    menu_item_id BIGINT,
+    menu_item_name VARCHAR(255) NOT NULL,
+    quantity INT NOT NULL,
+    price DOUBLE NOT NULL,
+    special_instructions VARCHAR(255),
+    PRIMARY KEY (id, archive_month),
+    KEY idx_archived_order_items_order (order_id)
+) ENGINE=InnoDB
+PARTITION BY RANGE (archive_month) (
+    PARTITION p_old VALUES LESS THAN (202501),
+    PARTITION p202501 VALUES LESS THAN (202502),
+    PARTITION p202502 VALUES LESS THAN (202503),
+    PARTITION p202503 VALUES LESS THAN (202504),
+    PARTITION p202504 VALUES LESS THAN (202505),
+    PARTITION p202505 VALUES LESS THAN (202506),
+    PARTITION p202506 VALUES LESS THAN (202507),
+    PARTITION p202507 VALUES LESS THAN (202508),
+    PARTITION p202508 VALUES LESS THAN (202509),
+    PARTITION p202509 VALUES LESS THAN (202510),
+    PARTITION p202510 VALUES LESS THAN (202511),
+    PARTITION p202511 VALUES LESS THAN (202512),
+    PARTITION p202512 VALUES LESS THAN (202601),
+    PARTITION p202601 VALUES LESS THAN (202602),
+    PARTITION p202602 VALUES LESS THAN (202603),
+    PARTITION p202603 VALUES LESS THAN (202604),
+    PARTITION p202604 VALUES LESS THAN (202605),
+    PARTITION p202605 VALUES LESS THAN (202606),
+    PARTITION p202606 VALUES LESS THAN (202607),
+    PARTITION p202607 VALUES LESS THAN (202608),
+    PARTITION p202608 VALUES LESS THAN (202609),
+    PARTITION p202609 VALUES LESS THAN (202610),
+    PARTITION p202610 VALUES LESS THAN (202611),
+    PARTITION p202611 VALUES LESS THAN (202612),
+    PARTITION p202612 VALUES LESS THAN (202701),
+    PARTITION p202701 VALUES LESS THAN (202702),
+    PARTITION p202702 VALUES LESS THAN (202703),
+    PARTITION p202703 VALUES LESS THAN (202704),
+    PARTITION p202704 VALUES LESS THAN (202705),
+    PARTITION p202705 VALUES LESS THAN (202706),
+    PARTITION p202706 VALUES LESS THAN (202707),
+    PARTITION p202707 VALUES LESS THAN (202708),
+    PARTITION p202708 VALUES LESS THAN (202709),
+    PARTITION p202709 VALUES LESS THAN (202710),
+    PARTITION p202710 VALUES LESS THAN (202711),
+    PARTITION p202711 VALUES LESS THAN (202712),
+    PARTITION p202712 VALUES LESS THAN (202801),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,26 @@
+-- Moves money from DOUBLE rupee columns to BIGINT paise. Run before deploying: otherwise
+-- ddl-auto=update adds the new NOT NULL columns itself and fills them with 0.
+-- ROUND() settles binary-fraction noise in stored doubles, e.g. 149.99999999999997 -> 15000.
+
+ALTER TABLE menu_items ADD COLUMN price_paise BIGINT NULL;
+UPDATE menu_items SET price_paise = ROUND(price * 100);
+ALTER TABLE menu_items MODIFY price_paise BIGINT NOT NULL, DROP COLUMN price;
+
+ALTER TABLE order_items ADD COLUMN price_paise BIGINT NULL;
+UPDATE order_items SET price_paise = ROUND(price * 100);
+ALTER TABLE order_items MODIFY price_paise BIGINT NOT NULL, DROP COLUMN price;
+
+ALTER TABLE customer_orders ADD COLUMN total_amount_paise BIGINT NULL;
+UPDATE customer_orders SET total_amount_paise = ROUND(total_amount * 100);
+ALTER TABLE customer_orders MODIFY total_amount_paise BIGINT NOT NULL, DROP COLUMN total_amount;
+
+ALTER TABLE archived_order_items ADD COLUMN price_paise BIGINT NULL;
+UPDATE archived_order_items SET price_paise = ROUND(price * 100);
+ALTER TABLE archived_order_items MODIFY price_paise BIGINT NOT NULL, DROP COLUMN price;
+
+ALTER TABLE archived_orders ADD COLUMN total_amount_paise BIGINT NULL;
+UPDATE archived_orders SET total_amount_paise = ROUND(total_amount * 100);
+ALTER TABLE archived_orders MODIFY total_amount_paise BIGINT NOT NULL, DROP COLUMN total_amount;
+
+-- Revenue totals are summed from the index alone, without touching order rows
+CREATE INDEX idx_customer_orders_revenue ON customer_orders (status, created_at, total_amount_paise);
@@ -0,0 +1,4 @@
+-- Adds the counter that claims-mode bearer tokens embed; bumping it revokes a user's earlier tokens.
+-- Run once against an existing database before deploying; existing users start at version 0.
+
+ALTER TABLE users_table ADD COLUMN token_version INT NOT NULL DEFAULT 0;
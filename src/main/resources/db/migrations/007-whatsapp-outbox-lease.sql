@@ -0,0 +1,6 @@
+-- Adds the lease a delivery worker holds on an IN_FLIGHT outbox message; expired leases are reclaimed
+-- by the next poll on any instance, replacing the startup release of every IN_FLIGHT row.
+-- Run once against an existing database before deploying; rows left IN_FLIGHT are made claimable at once.
+
+ALTER TABLE whatsapp_outbox ADD COLUMN claimed_until DATETIME(6) NULL;
+UPDATE whatsapp_outbox SET claimed_until = '1970-01-01 00:00:00' WHERE status = 'IN_FLIGHT';
@@ -0,0 +1,114 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.model.Category;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderItem;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.model.RestaurantTable;
+import com.khanabook.pos.service.MenuPricingSnapshot;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Detached entities shaped like a busy evening service: an 80 item menu and dine-in orders whose
+ * lines, quantities and instructions follow what the floor actually sends. Seeded, so every run
+ * and every release benchmarks the same data.
+ */
+public final class BenchmarkFixtures {
+
+	public static final String JWT_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+	private static final String[] DISHES = { "Paneer Butter Masala", "Dal Makhani", "Chicken Biryani",
+			"Mutton Rogan Josh", "Butter Naan", "Garlic Naan", "Tandoori Roti", "Jeera Rice", "Masala Dosa",
+			"Idli Sambar", "Chole Bhature", "Veg Hakka Noodles", "Gobi Manchurian", "Chicken 65", "Fish Curry",
+			"Malai Kofta" };
+	private static final String[] INSTRUCTIONS = { "Less spicy", "No onion, no garlic", "Extra gravy",
+			"Jain preparation", "Pack separately" };
+
+	private BenchmarkFixtures() {
+	}
+
+	public static List<MenuItem> menu(int size) {
+		Random random = new Random(42);
+		Category category = Category.builder().id(1L).name("Mains").build();
+		List<MenuItem> menu = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			menu.add(MenuItem.builder()
+					.id(i + 1L)
+					.name(DISHES[i % DISHES.length] + (i < DISHES.length ? "" : " " + (i / DISHES.length + 1)))
+					.pricePaise((40 + random.nextInt(400)) * 100L)
+					.category(category)
+					.vegetarian(random.nextBoolean())
+					.build());
+		}
+		return menu;
+	}
+
+	public static MenuPricingSnapshot.Snapshot pricing(List<MenuItem> menu) {
+		Map<Long, MenuPricingSnapshot.MenuPrice> prices = new LinkedHashMap<>();
+		for (MenuItem item : menu) {
+			prices.put(item.getId(),
+					new MenuPricingSnapshot.MenuPrice(item.getId(), item.getName(), item.getPricePaise(), true));
+		}
+		return new MenuPricingSnapshot.Snapshot(1, Instant.now(), prices);
+	}
+
+	public static List<OrderItemRequest> itemRequests(List<MenuItem> menu, int lines, long seed) {
+		Random random = new Random(seed);
+		List<OrderItemRequest> requests = new ArrayList<>(lines);
+		for (int i = 0; i < lines; i++) {
+			OrderItemRequest request = new OrderItemRequest();
+			request.setMenuItemId(menu.get(random.nextInt(menu.size())).getId());
+			request.setQuantity(1 + random.nextInt(3));
+			if (random.nextInt(4) == 0) {
+				request.setSpecialInstructions(INSTRUCTIONS[random.nextInt(INSTRUCTIONS.length)]);
+			}
+			requests.add(request);
+		}
+		return requests;
+	}
+
+	public static CustomerOrder order(List<MenuItem> menu, int lines, long seed) {
+		LocalDateTime placedAt = LocalDateTime.of(2026, 10, 16, 20, 15);
+		CustomerOrder order = CustomerOrder.builder()
+				.id(10_000 + seed)
+				.orderType(OrderType.DINE_IN)
+				.status(OrderStatus.IN_KITCHEN)
+				.restaurantTable(RestaurantTable.builder().id(4L).name("T4").build())
+				.createdAt(placedAt)
+				.sentToKitchenAt(placedAt.plusMinutes(2))
+				.estimatedKptMinutes(18)
+				.estimatedReadyTime(placedAt.plusMinutes(20))
+				.editableUntil(placedAt.plusMinutes(5))
+				.isQrOrder(seed % 3 == 0)
+				.specialInstructions(seed % 2 == 0 ? "Birthday table, serve desserts last" : null)
+				.build();
+
+		long total = 0;
+		long itemId = seed * 100;
+		for (OrderItemRequest request : itemRequests(menu, lines, seed)) {
+			MenuItem menuItem = menu.get((int) (request.getMenuItemId() - 1));
+			OrderItem item = OrderItem.builder()
+					.id(itemId++)
+					.menuItem(menuItem)
+					.quantity(request.getQuantity())
+					.pricePaise(menuItem.getPricePaise())
+					.specialInstructions(request.getSpecialInstructions())
+					.customerOrder(order)
+					.build();
+			order.getOrderItems().add(item);
+			total += item.getSubtotalPaise();
+		}
+		order.setTotalAmountPaise(total);
+		return order;
+	}
+}
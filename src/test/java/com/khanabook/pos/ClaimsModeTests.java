@@ -0,0 +1,126 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.model.Role;
+import com.khanabook.pos.model.User;
+import com.khanabook.pos.repository.UserRepository;
+import com.khanabook.pos.security.JwtUtil;
+import com.khanabook.pos.security.TokenDenylist;
+import com.khanabook.pos.security.UserDetailsServiceImpl;
+import com.khanabook.pos.service.UserManagementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:claims-mode;DB_CLOSE_DELAY=-1",
+		"jwt.claims-mode.enabled=true",
+		"jwt.claims-mode.denylist-refresh-ms=3600000" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClaimsModeTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserManagementService userManagementService;
+
+	@Autowired
+	private TokenDenylist tokenDenylist;
+
+	@SpyBean
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Test
+	void claimsTokenIsAuthorizedWithoutLoadingTheUser() throws Exception {
+		User chef = createKnownUser(Role.CHEF);
+		String token = jwtUtil.generateToken(chef);
+
+		assertThat(jwtUtil.verify(token).claimsPrincipal().getRole()).isEqualTo(Role.CHEF);
+		kitchenBoard(token, status().isOk());
+		kitchenBoard(token, status().isOk());
+
+		verify(userDetailsService, never()).loadUserByUsername(chef.getUsername());
+	}
+
+	@Test
+	void roleChangeRevokesEarlierTokens() throws Exception {
+		User chef = createKnownUser(Role.CHEF);
+		String chefToken = jwtUtil.generateToken(chef);
+		kitchenBoard(chefToken, status().isOk());
+
+		userManagementService.updateUserRoles(chef.getId(), Role.WAITER.name());
+
+		kitchenBoard(chefToken, status().isUnauthorized());
+		String waiterToken = jwtUtil.generateToken(userRepository.findById(chef.getId()).orElseThrow());
+		kitchenBoard(waiterToken, status().isForbidden());
+	}
+
+	@Test
+	void deactivatedOrDeletedUsersLoseAccessImmediately() throws Exception {
+		User deactivated = createKnownUser(Role.CHEF);
+		String deactivatedToken = jwtUtil.generateToken(deactivated);
+		User deleted = createKnownUser(Role.CHEF);
+		String deletedToken = jwtUtil.generateToken(deleted);
+
+		userManagementService.deactivateUser(deactivated.getId());
+		userManagementService.deleteUser(deleted.getId());
+
+		kitchenBoard(deactivatedToken, status().isUnauthorized());
+		kitchenBoard(deletedToken, status().isUnauthorized());
+		assertThat(tokenDenylist.currentVersion(deleted.getId())).isEqualTo(-1);
+	}
+
+	@Test
+	void userCreatedSinceTheLastRefreshIsLookedUpOnce() throws Exception {
+		User chef = userRepository.save(newUser(Role.CHEF));
+		String token = jwtUtil.generateToken(chef);
+
+		kitchenBoard(token, status().isOk());
+		kitchenBoard(token, status().isOk());
+
+		// The lookup records the user's version, so later tokens are authorized from their claims
+		assertThat(tokenDenylist.currentVersion(chef.getId())).isEqualTo(chef.getTokenVersion());
+		verify(userDetailsService, times(1)).loadUserByUsername(chef.getUsername());
+	}
+
+	private void kitchenBoard(String token, ResultMatcher expected) throws Exception {
+		mockMvc.perform(get("/api/kitchen/orders/active").header("Authorization", "Bearer " + token))
+				.andExpect(expected);
+	}
+
+	private User createKnownUser(Role role) {
+		User user = userRepository.save(newUser(role));
+		tokenDenylist.reload();
+		return user;
+	}
+
+	private User newUser(Role role) {
+		return User.builder()
+				.username("staff-" + UUID.randomUUID())
+				.password("{noop}unused")
+				.role(role)
+				.active(true)
+				.build();
+	}
+}
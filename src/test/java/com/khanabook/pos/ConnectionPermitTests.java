@@ -0,0 +1,75 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.config.ConnectionPermitDataSource;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.service.OrderService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:connection-permits;DB_CLOSE_DELAY=-1",
+		"spring.datasource.hikari.maximum-pool-size=4",
+		"spring.datasource.hikari.connection-timeout=250",
+		"datasource.connection-permits.enabled=true" })
+@ActiveProfiles("test")
+class ConnectionPermitTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Test
+	void permitsComeBackWhenConnectionsClose() throws Exception {
+		ConnectionPermitDataSource permits = (ConnectionPermitDataSource) dataSource;
+		assertThat(permits.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(4);
+
+		CustomerOrder order = orderRepository.save(CustomerOrder.builder()
+				.orderType(OrderType.TAKEAWAY)
+				.status(OrderStatus.PENDING)
+				.totalAmountPaise(0L)
+				.build());
+		orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED);
+		assertThat(permits.availablePermits()).isEqualTo(4);
+
+		Connection connection = dataSource.getConnection();
+		connection.close();
+		connection.close();
+		assertThat(permits.availablePermits()).isEqualTo(4);
+	}
+
+	@Test
+	void callersBeyondThePoolWaitThenTimeOut() throws Exception {
+		List<Connection> held = new ArrayList<>();
+		try {
+			for (int i = 0; i < 4; i++) {
+				held.add(dataSource.getConnection());
+			}
+			assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+		} finally {
+			for (Connection connection : held) {
+				connection.close();
+			}
+		}
+		assertThat(((ConnectionPermitDataSource) dataSource).availablePermits()).isEqualTo(4);
+	}
+}
@@ -0,0 +1,405 @@
+package com.khanabook.pos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.RestaurantTable;
+import com.khanabook.pos.model.Role;
+import com.khanabook.pos.model.TableStatus;
+import com.khanabook.pos.model.User;
+import com.khanabook.pos.repository.RestaurantTableRepository;
+import com.khanabook.pos.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop dinner-rush workload against the real HTTP endpoints, following the flows in
+ * {@code khana-book-pos.postman_collection.json}: staff logins, guests ordering by QR code,
+ * waiters and chefs moving those orders along, the kitchen board polling and managers pulling
+ * reports. Each flow has independent Poisson arrivals, so a slow server builds a queue instead of
+ * quietly lowering the offered load. Off by default; run with
+ *
+ * <pre>
+ * mvn test -Dtest=DinnerRushLoadTest -Dloadtest=true \
+ *     [-Dloadtest.datasource.url=jdbc:mysql://localhost/scratch_db?rewriteBatchedStatements=true] \
+ *     [-Dloadtest.rate.qr-order=30] [-Dloadtest.think-ms=800] [-Dloadtest.duration-s=120]
+ * </pre>
+ *
+ * Rates are sessions per second per flow: {@code login}, {@code qr-order}, {@code status},
+ * {@code kitchen} and {@code report}. Think time is exponentially distributed around
+ * {@code loadtest.think-ms} and sits between the steps of a session. Per endpoint throughput,
+ * error rate and p50/p99/p99.9 latency are printed and written to
+ * {@code target/dinner-rush.csv}. As with {@link VirtualThreadBenchmark}, only point it at a
+ * scratch database.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=${loadtest.datasource.url:jdbc:h2:mem:dinner-rush;DB_CLOSE_DELAY=-1}",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.generate_statistics=false",
+		"logging.level.org.hibernate.SQL=INFO",
+		"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+		"logging.level.com.khanabook.pos=INFO" })
+@ActiveProfiles("test")
+class DinnerRushLoadTest {
+
+	private static final String PASSWORD = "Rush@2026";
+	private static final int TABLES = 150;
+	private static final int MENU_ITEMS = 60;
+
+	private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-s", 15));
+	private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("loadtest.duration-s", 60));
+	private static final long THINK_MILLIS = Long.getLong("loadtest.think-ms", 500);
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	PasswordEncoder passwordEncoder;
+
+	@Autowired
+	RestaurantTableRepository tableRepository;
+
+	@Autowired
+	MenuFixture menuFixture;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+	// Orders still moving through the kitchen, picked up by status bump sessions
+	private final Queue<Ticket> tickets = new ConcurrentLinkedQueue<>();
+
+	private HttpClient http;
+	private long measureFrom;
+	private long measureUntil;
+	private List<String> staff;
+	private List<String> qrTokens;
+	private List<Long> menuItemIds;
+	private String waiterToken;
+	private String chefToken;
+	private String managerToken;
+
+	@Test
+	void dinnerRush() throws Exception {
+		seed();
+		List<Flow> flows = List.of(
+				new Flow("login", rate("login", 0.5), this::staffLogin),
+				new Flow("qr-order", rate("qr-order", 15), this::qrOrder),
+				new Flow("status", rate("status", 12), this::statusBump),
+				new Flow("kitchen", rate("kitchen", 5), this::kitchenBoard),
+				new Flow("report", rate("report", 0.5), this::reports));
+
+		try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+			http = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.executor(sessions)
+					.connectTimeout(Duration.ofSeconds(10))
+					.build();
+			waiterToken = login("waiter1");
+			chefToken = login("chef1");
+			managerToken = login("manager1");
+
+			long start = System.nanoTime();
+			measureFrom = start + WARMUP.toNanos();
+			measureUntil = measureFrom + MEASUREMENT.toNanos();
+			List<Thread> generators = new ArrayList<>();
+			for (Flow flow : flows) {
+				generators.add(Thread.ofPlatform().name("arrivals-" + flow.name())
+						.start(() -> generateArrivals(flow, start, sessions)));
+			}
+			for (Thread generator : generators) {
+				generator.join();
+			}
+		}
+
+		report();
+		assertThat(endpoints.computeIfAbsent("POST /api/orders/qr", name -> new Endpoint()).completed())
+				.as("completed QR orders").isPositive();
+	}
+
+	// Exponential gaps give Poisson arrivals; sessions start on time even when earlier ones are stuck
+	private void generateArrivals(Flow flow, long start, ExecutorService sessions) {
+		if (flow.perSecond() <= 0) {
+			return;
+		}
+		long next = start;
+		while (true) {
+			next += exponentialNanos(1_000_000_000L / flow.perSecond());
+			if (next >= measureUntil) {
+				return;
+			}
+			long wait;
+			while ((wait = next - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			long scheduled = next;
+			sessions.submit(() -> flow.session().run(scheduled));
+		}
+	}
+
+	private void staffLogin(long scheduled) {
+		String username = staff.get(ThreadLocalRandom.current().nextInt(staff.size()));
+		send("POST /api/auth/login", scheduled, loginRequest(username), 200);
+	}
+
+	private void qrOrder(long scheduled) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		StringBuilder items = new StringBuilder();
+		int lines = 1 + random.nextInt(4);
+		for (int i = 0; i < lines; i++) {
+			items.append(i == 0 ? "" : ",").append("{\"menuItemId\":")
+					.append(menuItemIds.get(random.nextInt(menuItemIds.size())))
+					.append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+		}
+		String body = "{\"qrToken\":\"" + qrTokens.get(random.nextInt(qrTokens.size())) + "\",\"items\":[" + items
+				+ "]}";
+		HttpRequest request = request("/api/orders/qr", null)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		JsonNode order = send("POST /api/orders/qr", scheduled, request, 201);
+		if (order != null) {
+			tickets.add(new Ticket(order.get("id").asLong(), OrderStatus.PENDING));
+		}
+	}
+
+	// Staff walk over to the order before bumping it
+	private void statusBump(long scheduled) {
+		Ticket ticket = tickets.poll();
+		if (ticket == null) {
+			return;
+		}
+		think();
+		OrderStatus next = switch (ticket.status()) {
+			case PENDING -> OrderStatus.CONFIRMED;
+			case CONFIRMED -> OrderStatus.IN_KITCHEN;
+			case IN_KITCHEN -> OrderStatus.READY_TO_SERVE;
+			case READY_TO_SERVE -> OrderStatus.SERVED;
+			default -> OrderStatus.COMPLETED;
+		};
+		String token = next == OrderStatus.IN_KITCHEN || next == OrderStatus.READY_TO_SERVE ? chefToken : waiterToken;
+		HttpRequest request = request("/api/orders/" + ticket.orderId() + "/status?status=" + next, token)
+				.PUT(HttpRequest.BodyPublishers.noBody())
+				.build();
+		JsonNode updated = send("PUT /api/orders/{id}/status", System.nanoTime(), request, 200);
+		// A failed bump is already counted as an error; retrying it would count it again
+		if (updated != null && next != OrderStatus.COMPLETED) {
+			tickets.add(new Ticket(ticket.orderId(), next));
+		}
+	}
+
+	private void kitchenBoard(long scheduled) {
+		send("GET /api/kitchen/orders/active", scheduled, request("/api/kitchen/orders/active", chefToken).GET().build(),
+				200);
+	}
+
+	private void reports(long scheduled) {
+		LocalDate today = LocalDate.now();
+		String range = "?start=" + today.atStartOfDay() + "&end=" + today.plusDays(1).atStartOfDay();
+		send("GET /api/reports/sales", scheduled, request("/api/reports/sales" + range, managerToken).GET().build(), 200);
+		think();
+		send("GET /api/reports/order-status-count", System.nanoTime(),
+				request("/api/reports/order-status-count", managerToken).GET().build(), 200);
+	}
+
+	/**
+	 * Latency runs from {@code scheduled}, the moment the session meant to send, so time spent
+	 * waiting behind a backed-up server is counted. Only requests scheduled inside the measurement
+	 * window are recorded. Returns the parsed body, or null on any failure.
+	 */
+	private JsonNode send(String endpoint, long scheduled, HttpRequest request, int expectedStatus) {
+		boolean measured = scheduled >= measureFrom && scheduled < measureUntil;
+		Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+		try {
+			HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+			long latency = System.nanoTime() - scheduled;
+			if (response.statusCode() != expectedStatus) {
+				if (measured) {
+					stats.errors.increment();
+				}
+				return null;
+			}
+			if (measured) {
+				stats.record(latency);
+			}
+			return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+		} catch (IOException e) {
+			if (measured) {
+				stats.errors.increment();
+			}
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private void report() throws IOException {
+		double seconds = MEASUREMENT.toMillis() / 1000.0;
+		Path csv = Path.of("target", "dinner-rush.csv");
+		Files.createDirectories(csv.getParent());
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+			out.println("endpoint,completed,throughput_per_s,errors,error_rate,p50_ms,p99_ms,p999_ms");
+			System.out.printf("%-36s %9s %9s %7s %7s %8s %8s %8s%n", "endpoint", "completed", "req/s", "errors",
+					"err%", "p50ms", "p99ms", "p99.9ms");
+			endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+				Endpoint stats = entry.getValue();
+				long[] sorted = stats.sortedLatencies();
+				long errors = stats.errors.sum();
+				double errorRate = sorted.length + errors == 0 ? 0 : (double) errors / (sorted.length + errors);
+				double p50 = percentileMillis(sorted, 50);
+				double p99 = percentileMillis(sorted, 99);
+				double p999 = percentileMillis(sorted, 99.9);
+				System.out.printf("%-36s %9d %9.1f %7d %6.2f%% %8.1f %8.1f %8.1f%n", entry.getKey(), sorted.length,
+						sorted.length / seconds, errors, errorRate * 100, p50, p99, p999);
+				out.printf("%s,%d,%.2f,%d,%.4f,%.2f,%.2f,%.2f%n", entry.getKey(), sorted.length,
+						sorted.length / seconds, errors, errorRate, p50, p99, p999);
+			});
+		}
+	}
+
+	private static double percentileMillis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1_000_000.0;
+	}
+
+	private void seed() {
+		staff = new ArrayList<>();
+		createStaff("manager1", Role.MANAGER);
+		for (int i = 1; i <= 6; i++) {
+			createStaff("waiter" + i, Role.WAITER);
+		}
+		for (int i = 1; i <= 3; i++) {
+			createStaff("chef" + i, Role.CHEF);
+		}
+
+		qrTokens = tableRepository.saveAll(IntStream.rangeClosed(1, TABLES)
+				.mapToObj(i -> RestaurantTable.builder().name("Rush-T" + i + "-" + UUID.randomUUID())
+						.status(TableStatus.AVAILABLE).build())
+				.toList()).stream().map(RestaurantTable::getQrToken).toList();
+
+		menuItemIds = menuFixture.items("Rush Dish", 12000L, MENU_ITEMS).stream().map(MenuItem::getId)
+				.toList();
+	}
+
+	private void createStaff(String username, Role role) {
+		if (!userRepository.existsByUsername(username)) {
+			userRepository.save(User.builder()
+					.username(username)
+					.password(passwordEncoder.encode(PASSWORD))
+					.email(username + "@rush.khanabook.com")
+					.fullName(username)
+					.role(role)
+					.active(true)
+					.build());
+		}
+		staff.add(username);
+	}
+
+	private String login(String username) throws Exception {
+		HttpResponse<String> response = http.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).as("login " + username).isEqualTo(200);
+		return objectMapper.readTree(response.body()).get("token").asText();
+	}
+
+	private HttpRequest loginRequest(String username) {
+		return request("/api/auth/login", null)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+				.build();
+	}
+
+	private HttpRequest.Builder request(String path, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.timeout(Duration.ofSeconds(30));
+		return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+	}
+
+	private static void think() {
+		if (THINK_MILLIS > 0) {
+			LockSupport.parkNanos(exponentialNanos(TimeUnit.MILLISECONDS.toNanos(THINK_MILLIS)));
+		}
+	}
+
+	private static long exponentialNanos(double meanNanos) {
+		return (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanNanos);
+	}
+
+	private static double rate(String flow, double defaultPerSecond) {
+		return Double.parseDouble(System.getProperty("loadtest.rate." + flow, Double.toString(defaultPerSecond)));
+	}
+
+	private interface Session {
+		void run(long scheduled);
+	}
+
+	private record Flow(String name, double perSecond, Session session) {
+	}
+
+	private record Ticket(long orderId, OrderStatus status) {
+	}
+
+	private static final class Endpoint {
+
+		private final LongAdder errors = new LongAdder();
+		private long[] latencies = new long[1024];
+		private int count;
+
+		synchronized void record(long latencyNanos) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latencyNanos;
+		}
+
+		synchronized long[] sortedLatencies() {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+
+		synchronized int completed() {
+			return count;
+		}
+	}
+}
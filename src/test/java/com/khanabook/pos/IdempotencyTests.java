@@ -0,0 +1,146 @@
+package com.khanabook.pos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.service.IdempotencyService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyTests {
+
+	private final AtomicLong nextOrderId = new AtomicLong();
+	private final AtomicInteger created = new AtomicInteger();
+
+	@Test
+	void replayedKeyReturnsTheOriginalOrder() {
+		IdempotencyService service = service(100);
+
+		OrderResponse first = service.execute("orders:waiter", "key-1", request(1L, 2), this::createOrder);
+		OrderResponse replay = service.execute("orders:waiter", "key-1", request(1L, 2), this::createOrder);
+
+		assertThat(replay.getId()).isEqualTo(first.getId());
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	void sameKeyWithADifferentBodyIsRejected() {
+		IdempotencyService service = service(100);
+		service.execute("orders:waiter", "key-1", request(1L, 2), this::createOrder);
+
+		assertThatThrownBy(() -> service.execute("orders:waiter", "key-1", request(1L, 3), this::createOrder))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("different request");
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	void keysAreScopedToTheCaller() {
+		IdempotencyService service = service(100);
+
+		OrderResponse waiter = service.execute("orders:waiter", "key-1", request(1L, 2), this::createOrder);
+		OrderResponse table = service.execute("qr:table-7", "key-1", request(1L, 2), this::createOrder);
+
+		assertThat(table.getId()).isNotEqualTo(waiter.getId());
+		assertThat(created).hasValue(2);
+	}
+
+	@Test
+	void failedSubmissionIsNotRemembered() {
+		IdempotencyService service = service(100);
+
+		assertThatThrownBy(() -> service.execute("orders:waiter", "key-1", request(1L, 2), () -> {
+			throw new IllegalStateException("kitchen closed");
+		})).isInstanceOf(IllegalStateException.class);
+		service.execute("orders:waiter", "key-1", request(1L, 2), this::createOrder);
+
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	void concurrentDuplicatesCollapseIntoOneOrder() throws Exception {
+		IdempotencyService service = service(100);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() -> service.execute(
+				"orders:waiter", "key-1", request(1L, 2), blockedUntil(running, release)));
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(() -> service.execute(
+				"orders:waiter", "key-1", request(1L, 2), this::createOrder));
+
+		Thread.sleep(100);
+		assertThat(duplicate).isNotDone();
+		release.countDown();
+
+		assertThat(duplicate.get(5, TimeUnit.SECONDS).getId()).isEqualTo(first.get(5, TimeUnit.SECONDS).getId());
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	void inFlightSubmissionSurvivesSizeEviction() throws Exception {
+		IdempotencyService service = service(2);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<OrderResponse> slow = CompletableFuture.supplyAsync(() -> service.execute(
+				"orders:waiter", "slow", request(1L, 2), blockedUntil(running, release)));
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < 20; i++) {
+			service.execute("orders:waiter", "key-" + i, request(1L, 2), this::createOrder);
+		}
+
+		// Still remembered: a different body under the key is refused without waiting on the slow one
+		assertThatThrownBy(() -> service.execute("orders:waiter", "slow", request(1L, 3), this::createOrder))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("different request");
+		release.countDown();
+		slow.get(5, TimeUnit.SECONDS);
+		assertThat(created).hasValue(21);
+	}
+
+	private IdempotencyService service(long maxKeys) {
+		return new IdempotencyService(new ObjectMapper(), maxKeys, 60);
+	}
+
+	private Supplier<OrderResponse> blockedUntil(CountDownLatch running, CountDownLatch release) {
+		return () -> {
+			running.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return createOrder();
+		};
+	}
+
+	private OrderResponse createOrder() {
+		created.incrementAndGet();
+		OrderResponse response = new OrderResponse();
+		response.setId(nextOrderId.incrementAndGet());
+		return response;
+	}
+
+	private OrderRequest request(Long menuItemId, int quantity) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuItemId);
+		item.setQuantity(quantity);
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.TAKEAWAY);
+		request.setItems(List.of(item));
+		return request;
+	}
+}
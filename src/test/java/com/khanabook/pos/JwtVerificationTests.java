@@ -0,0 +1,68 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.security.JwtUtil;
+import com.khanabook.pos.security.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtVerificationTests {
+
+	private static final String OTHER_SECRET = "5A7134743777217A25432A462D4A614E645267556B58703273357638792F423F";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final JwtUtil jwtUtil = jwtUtil(BenchmarkFixtures.JWT_SECRET, 3_600_000L);
+	private final UserDetails waiter = User.withUsername("waiter1").password("unused").roles("WAITER").build();
+
+	@Test
+	void repeatVerificationIsServedFromCache() {
+		String token = jwtUtil.generateToken(waiter);
+
+		VerifiedToken first = jwtUtil.verify(token);
+		VerifiedToken second = jwtUtil.verify(token);
+
+		assertThat(second).isSameAs(first);
+		assertThat(first.username()).isEqualTo("waiter1");
+		assertThat(jwtUtil.validateToken(first, waiter)).isTrue();
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "verified-tokens").tag("result", "hit")
+				.functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void tokenSignedWithAnotherKeyIsRejected() {
+		String forged = jwtUtil(OTHER_SECRET, 3_600_000L).generateToken(waiter);
+
+		assertThatThrownBy(() -> jwtUtil.verify(forged)).isInstanceOf(SignatureException.class);
+		assertThatThrownBy(() -> jwtUtil.verify(forged)).isInstanceOf(SignatureException.class);
+	}
+
+	@Test
+	void tamperedTokenIsRejectedEvenAfterTheOriginalWasCached() {
+		String token = jwtUtil.generateToken(waiter);
+		jwtUtil.verify(token);
+		String[] parts = token.split("\\.");
+		String[] manager = jwtUtil.generateToken(User.withUsername("manager1").password("unused").roles("MANAGER").build())
+				.split("\\.");
+		String tampered = parts[0] + "." + manager[1] + "." + parts[2];
+
+		assertThatThrownBy(() -> jwtUtil.verify(tampered)).isInstanceOf(SignatureException.class);
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String expired = jwtUtil(BenchmarkFixtures.JWT_SECRET, -1_000L).generateToken(waiter);
+
+		assertThatThrownBy(() -> jwtUtil.verify(expired)).isInstanceOf(ExpiredJwtException.class);
+	}
+
+	private JwtUtil jwtUtil(String secret, long expiration) {
+		return new JwtUtil(secret, expiration, 100, 60_000, false, meterRegistry);
+	}
+}
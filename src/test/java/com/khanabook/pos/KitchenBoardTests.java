@@ -0,0 +1,136 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.response.BulkStatusResponse;
+import com.khanabook.pos.dto.response.BulkStatusResult;
+import com.khanabook.pos.dto.response.KitchenBoardCheck;
+import com.khanabook.pos.dto.response.KitchenOrderResponse;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.service.KitchenService;
+import com.khanabook.pos.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class KitchenBoardTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private KitchenService kitchenService;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Test
+	void boardFollowsOrderThroughTheKitchen() {
+		Long orderId = orderService.createOrder(takeawayOrder(menuFixture.item("Veg Samosa", 4000L))).getId();
+		assertThat(ids(kitchenService.getPendingOrders())).doesNotContain(orderId);
+
+		orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
+		assertThat(ids(kitchenService.getPendingOrders())).contains(orderId);
+		assertThat(ids(kitchenService.getActiveOrders())).doesNotContain(orderId);
+
+		orderService.updateOrderStatus(orderId, OrderStatus.IN_KITCHEN);
+		kitchenService.updateKpt(orderId, 22);
+		KitchenOrderResponse inKitchen = kitchenService.getActiveOrders().stream()
+				.filter(order -> order.getOrderId().equals(orderId)).findFirst().orElseThrow();
+		assertThat(inKitchen.getEstimatedKptMinutes()).isEqualTo(22);
+
+		assertThat(kitchenService.markOrderReady(orderId).getStatus()).isEqualTo(OrderStatus.READY_TO_SERVE);
+		assertThat(orderRepository.findById(orderId).orElseThrow().getActualKptMinutes()).isNotNull();
+		assertThat(ids(kitchenService.getPendingOrders())).doesNotContain(orderId);
+		assertThat(ids(kitchenService.getActiveOrders())).contains(orderId);
+
+		orderService.updateOrderStatus(orderId, OrderStatus.SERVED);
+		assertThat(ids(kitchenService.getActiveOrders())).doesNotContain(orderId);
+
+		KitchenBoardCheck check = kitchenService.checkBoard(false);
+		assertThat(check.getMissing()).doesNotContain(orderId);
+		assertThat(check.getUnexpected()).doesNotContain(orderId);
+	}
+
+	@Test
+	void checkFindsAndRepairsChangesMadeBehindTheBoard() {
+		Long orderId = orderService.createOrder(takeawayOrder(menuFixture.item("Veg Samosa", 4000L))).getId();
+		kitchenService.getPendingOrders();
+
+		// Bypass the service so no event reaches the board
+		CustomerOrder order = orderRepository.findById(orderId).orElseThrow();
+		order.setStatus(OrderStatus.CONFIRMED);
+		orderRepository.save(order);
+
+		KitchenBoardCheck check = kitchenService.checkBoard(true);
+		assertThat(check.getMissing()).contains(orderId);
+		assertThat(check.isRepaired()).isTrue();
+		assertThat(ids(kitchenService.getPendingOrders())).contains(orderId);
+		assertThat(kitchenService.checkBoard(false).getMissing()).doesNotContain(orderId);
+	}
+
+	@Test
+	void bulkReadyReportsEachOrderAndUpdatesTheBoard() {
+		MenuItem menuItem = menuFixture.item("Veg Samosa", 4000L);
+		Long first = orderInKitchen(menuItem);
+		Long second = orderInKitchen(menuItem);
+		Long pending = orderService.createOrder(takeawayOrder(menuItem)).getId();
+		Long unknown = Long.MAX_VALUE;
+
+		BulkStatusResponse response = kitchenService.markOrdersReady(List.of(first, second, pending, unknown, first));
+
+		assertThat(response.getUpdated()).isEqualTo(2);
+		assertThat(response.getRejected()).isEqualTo(2);
+		assertThat(response.getResults()).extracting(BulkStatusResult::getOrderId, BulkStatusResult::getOutcome)
+				.containsExactly(
+						tuple(first, BulkStatusResult.Outcome.UPDATED),
+						tuple(second, BulkStatusResult.Outcome.UPDATED),
+						tuple(pending, BulkStatusResult.Outcome.REJECTED),
+						tuple(unknown, BulkStatusResult.Outcome.NOT_FOUND));
+
+		CustomerOrder ready = orderRepository.findById(first).orElseThrow();
+		assertThat(ready.getStatus()).isEqualTo(OrderStatus.READY_TO_SERVE);
+		assertThat(ready.getReadyAt()).isNotNull();
+		assertThat(ready.getActualKptMinutes()).isNotNull();
+		assertThat(orderRepository.findById(pending).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(ids(kitchenService.getActiveOrders())).contains(first, second);
+		assertThat(ids(kitchenService.getPendingOrders())).doesNotContain(first, second);
+	}
+
+	private Long orderInKitchen(MenuItem menuItem) {
+		Long orderId = orderService.createOrder(takeawayOrder(menuItem)).getId();
+		orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED);
+		orderService.updateOrderStatus(orderId, OrderStatus.IN_KITCHEN);
+		return orderId;
+	}
+
+	private List<Long> ids(List<KitchenOrderResponse> orders) {
+		return orders.stream().map(KitchenOrderResponse::getOrderId).toList();
+	}
+
+	private OrderRequest takeawayOrder(MenuItem menuItem) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuItem.getId());
+		item.setQuantity(2);
+
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.TAKEAWAY);
+		request.setItems(List.of(item));
+		return request;
+	}
+}
@@ -0,0 +1,43 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.response.KitchenOrderResponse;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.service.impl.KitchenOrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Kitchen ticket mapping, run for every order on each board refresh and pushed event
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KitchenOrderMapperBenchmark {
+
+	@Param({ "3", "8", "25" })
+	private int lines;
+
+	private CustomerOrder order;
+
+	@Setup
+	public void setUp() {
+		order = BenchmarkFixtures.order(BenchmarkFixtures.menu(80), lines, 11);
+	}
+
+	@Benchmark
+	public KitchenOrderResponse toResponse() {
+		return KitchenOrderMapper.toResponse(order);
+	}
+}
@@ -0,0 +1,109 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.response.KitchenOrderResponse;
+import com.khanabook.pos.event.KitchenOrderEvent;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.service.KitchenEventStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:kitchen-stream;DB_CLOSE_DELAY=-1",
+		"kitchen.stream.buffer-size=3" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "CHEF")
+class KitchenStreamTests {
+
+	private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private KitchenEventStream kitchenEventStream;
+
+	@Test
+	void reconnectingDisplayReceivesExactlyWhatItMissed() throws Exception {
+		MockHttpServletResponse live = subscribe(get("/api/kitchen/stream"));
+		LongStream.rangeClosed(1, 3).forEach(this::publish);
+		List<Long> ids = awaitEventIds(live, 3);
+
+		MockHttpServletResponse resumed = subscribe(get("/api/kitchen/stream").header("Last-Event-ID", ids.get(0)));
+
+		assertThat(awaitEventIds(resumed, 2)).containsExactly(ids.get(1), ids.get(2));
+		assertThat(resumed.getContentAsString()).doesNotContain("RESYNC").contains("\"orderId\":2", "\"orderId\":3");
+	}
+
+	@Test
+	void displayFurtherBehindThanTheBufferIsToldToResync() throws Exception {
+		MockHttpServletResponse live = subscribe(get("/api/kitchen/stream"));
+		LongStream.rangeClosed(1, 5).forEach(this::publish);
+		List<Long> ids = awaitEventIds(live, 5);
+
+		MockHttpServletResponse resumed = subscribe(get("/api/kitchen/stream").header("Last-Event-ID", ids.get(0)));
+
+		assertThat(awaitEventIds(resumed, 1)).containsExactly(ids.get(4));
+		assertThat(resumed.getContentAsString()).contains("event:RESYNC").doesNotContain("orderId");
+	}
+
+	@Test
+	void futureEventIdFromAPreviousRunIsToldToResync() throws Exception {
+		MockHttpServletResponse live = subscribe(get("/api/kitchen/stream"));
+		publish(1);
+		long lastId = awaitEventIds(live, 1).get(0);
+
+		MockHttpServletResponse resumed = subscribe(get("/api/kitchen/stream").header("Last-Event-ID", lastId + 100));
+
+		awaitEventIds(resumed, 1);
+		assertThat(resumed.getContentAsString()).contains("event:RESYNC");
+	}
+
+	private MockHttpServletResponse subscribe(MockHttpServletRequestBuilder request) throws Exception {
+		return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn().getResponse();
+	}
+
+	private void publish(long orderId) {
+		KitchenOrderResponse order = new KitchenOrderResponse();
+		order.setOrderId(orderId);
+		order.setStatus(OrderStatus.IN_KITCHEN);
+		kitchenEventStream.onKitchenOrderEvent(new KitchenOrderEvent(KitchenOrderEvent.Type.STATUS_CHANGED, order, 1));
+	}
+
+	// Events are written by the stream's sender threads, so the response fills in after publish returns
+	private List<Long> awaitEventIds(MockHttpServletResponse response, int count) throws Exception {
+		Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+		List<Long> ids = eventIds(response.getContentAsString());
+		while (ids.size() < count) {
+			assertThat(Instant.now()).as("timed out waiting for %d events", count).isBefore(deadline);
+			Thread.sleep(20);
+			ids = eventIds(response.getContentAsString());
+		}
+		Thread.sleep(50);
+		assertThat(eventIds(response.getContentAsString())).as("unexpected extra events").hasSize(count);
+		return ids;
+	}
+
+	private static List<Long> eventIds(String content) {
+		Matcher matcher = EVENT_ID.matcher(content);
+		return matcher.results().map(result -> Long.parseLong(result.group(1))).toList();
+	}
+}
@@ -0,0 +1,116 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.exception.PasswordHashingBusyException;
+import com.khanabook.pos.model.Role;
+import com.khanabook.pos.model.User;
+import com.khanabook.pos.repository.UserRepository;
+import com.khanabook.pos.security.BoundedPasswordEncoder;
+import com.khanabook.pos.service.LastLoginRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:login;DB_CLOSE_DELAY=-1",
+		"auth.last-login.flush-interval-ms=3600000" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginTests {
+
+	private static final String PASSWORD = "shift-start-1";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private LastLoginRecorder lastLoginRecorder;
+
+	@Test
+	void lastLoginIsWrittenOnTheNextFlush() throws Exception {
+		User waiter = createUser(passwordEncoder.encode(PASSWORD));
+		lastLoginRecorder.flush();
+
+		login(waiter);
+		login(waiter);
+		assertThat(userRepository.findById(waiter.getId()).orElseThrow().getLastLogin()).isNull();
+
+		assertThat(lastLoginRecorder.flush()).isEqualTo(1);
+		assertThat(userRepository.findById(waiter.getId()).orElseThrow().getLastLogin()).isNotNull();
+	}
+
+	@Test
+	void weakerHashIsUpgradedOnLogin() throws Exception {
+		User waiter = createUser(new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+		login(waiter);
+
+		String stored = userRepository.findById(waiter.getId()).orElseThrow().getPassword();
+		assertThat(stored).startsWith("$2a$10$");
+		assertThat(passwordEncoder.matches(PASSWORD, stored)).isTrue();
+	}
+
+	@Test
+	void checkThatCannotBeServedInTimeIsRefused() {
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder slow = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return true;
+			}
+		};
+
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, 100, new SimpleMeterRegistry())) {
+			assertThatThrownBy(() -> encoder.matches(PASSWORD, PASSWORD))
+					.isInstanceOf(PasswordHashingBusyException.class);
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private void login(User user) throws Exception {
+		mockMvc.perform(post("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + user.getUsername() + "\",\"password\":\"" + PASSWORD + "\"}"))
+				.andExpect(status().isOk());
+	}
+
+	private User createUser(String passwordHash) {
+		return userRepository.save(User.builder()
+				.username("staff-" + UUID.randomUUID())
+				.password(passwordHash)
+				.role(Role.WAITER)
+				.active(true)
+				.build());
+	}
+}
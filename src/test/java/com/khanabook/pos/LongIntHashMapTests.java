@@ -0,0 +1,141 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.util.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTests {
+
+	// LongIntHashMap(4) has 16 slots; mirrors its private slot() so tests can build clusters on purpose
+	private static final int MASK = 15;
+
+	@Test
+	void putGetAndOverwrite() {
+		LongIntHashMap map = new LongIntHashMap(4);
+		map.put(7L, 70);
+		map.put(-3L, 30);
+		map.put(7L, 71);
+
+		assertThat(map.get(7L, -1)).isEqualTo(71);
+		assertThat(map.get(-3L, -1)).isEqualTo(30);
+		assertThat(map.get(8L, -1)).isEqualTo(-1);
+		assertThat(map.containsKey(-3L)).isTrue();
+		assertThat(map.size()).isEqualTo(2);
+	}
+
+	@Test
+	void removingTheHeadOfAWrappedClusterKeepsTheRestReachable() {
+		List<Long> lastSlot = keysWithHome(MASK, 3);
+		long firstSlot = keysWithHome(0, 1).get(0);
+		LongIntHashMap map = new LongIntHashMap(4);
+		// Occupies slots 15, 0 and 1, then the key whose home is 0 is pushed on to slot 2
+		lastSlot.forEach(key -> map.put(key, (int) (long) key));
+		map.put(firstSlot, 1);
+
+		assertThat(map.remove(lastSlot.get(0))).isTrue();
+
+		assertThat(map.containsKey(lastSlot.get(0))).isFalse();
+		assertThat(map.get(lastSlot.get(1), -1)).isEqualTo((int) (long) lastSlot.get(1));
+		assertThat(map.get(lastSlot.get(2), -1)).isEqualTo((int) (long) lastSlot.get(2));
+		assertThat(map.get(firstSlot, -1)).isEqualTo(1);
+		assertThat(map.size()).isEqualTo(3);
+	}
+
+	@Test
+	void removingInsideAWrappedClusterLeavesKeysAtTheirHomeInPlace() {
+		List<Long> lastSlot = keysWithHome(MASK, 2);
+		List<Long> firstSlot = keysWithHome(0, 2);
+		LongIntHashMap map = new LongIntHashMap(4);
+		map.put(lastSlot.get(0), 1);
+		map.put(firstSlot.get(0), 2);
+		map.put(lastSlot.get(1), 3);
+		map.put(firstSlot.get(1), 4);
+
+		assertThat(map.remove(firstSlot.get(0))).isTrue();
+		assertThat(map.remove(firstSlot.get(0))).isFalse();
+
+		assertThat(map.get(lastSlot.get(0), -1)).isEqualTo(1);
+		assertThat(map.get(lastSlot.get(1), -1)).isEqualTo(3);
+		assertThat(map.get(firstSlot.get(1), -1)).isEqualTo(4);
+		map.put(firstSlot.get(0), 5);
+		assertThat(map.get(firstSlot.get(0), -1)).isEqualTo(5);
+		assertThat(map.size()).isEqualTo(4);
+	}
+
+	@Test
+	void growsPastItsExpectedSize() {
+		LongIntHashMap map = new LongIntHashMap(1);
+		for (int i = 0; i < 10_000; i++) {
+			map.put(i * 31L, i);
+		}
+
+		assertThat(map.size()).isEqualTo(10_000);
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(map.get(i * 31L, -1)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	void behavesLikeAHashMapUnderRandomChurn() {
+		Random random = new Random(42);
+		LongIntHashMap map = new LongIntHashMap(2);
+		Map<Long, Integer> expected = new HashMap<>();
+
+		// A small key space keeps clusters long and removals frequent across several resizes
+		for (int i = 0; i < 200_000; i++) {
+			long key = random.nextInt(600) - 300;
+			if (random.nextInt(3) == 0) {
+				assertThat(map.remove(key)).isEqualTo(expected.remove(key) != null);
+			} else {
+				int value = random.nextInt();
+				map.put(key, value);
+				expected.put(key, value);
+			}
+		}
+
+		assertThat(map.size()).isEqualTo(expected.size());
+		for (long key = -300; key < 300; key++) {
+			assertThat(map.get(key, Integer.MIN_VALUE)).isEqualTo(expected.getOrDefault(key, Integer.MIN_VALUE));
+		}
+	}
+
+	@Test
+	void copyIsIsolatedFromTheOriginal() {
+		LongIntHashMap original = new LongIntHashMap(4);
+		original.put(1L, 10);
+		original.put(2L, 20);
+
+		LongIntHashMap copy = original.copy();
+		copy.put(1L, 11);
+		copy.remove(2L);
+		copy.put(3L, 30);
+		original.put(4L, 40);
+
+		assertThat(original.get(1L, -1)).isEqualTo(10);
+		assertThat(original.get(2L, -1)).isEqualTo(20);
+		assertThat(original.containsKey(3L)).isFalse();
+		assertThat(original.size()).isEqualTo(3);
+		assertThat(copy.get(1L, -1)).isEqualTo(11);
+		assertThat(copy.containsKey(2L)).isFalse();
+		assertThat(copy.containsKey(4L)).isFalse();
+		assertThat(copy.size()).isEqualTo(2);
+	}
+
+	private static List<Long> keysWithHome(int slot, int count) {
+		List<Long> keys = new ArrayList<>();
+		for (long key = 1; keys.size() < count; key++) {
+			long hash = key * 0x9E3779B97F4A7C15L;
+			if (((int) (hash ^ (hash >>> 32)) & MASK) == slot) {
+				keys.add(key);
+			}
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,44 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.model.Category;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.service.CategoryService;
+import com.khanabook.pos.service.MenuItemService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Creates menu items through CategoryService and MenuItemService, the same path the admin API
+ * takes, so the pricing snapshot and menu caches see every item exactly as they would in
+ * production. Names carry a random suffix, so tests sharing a database never collide.
+ */
+@Component
+public class MenuFixture {
+
+	private final CategoryService categoryService;
+	private final MenuItemService menuItemService;
+
+	public MenuFixture(CategoryService categoryService, MenuItemService menuItemService) {
+		this.categoryService = categoryService;
+		this.menuItemService = menuItemService;
+	}
+
+	public MenuItem item(String name, long pricePaise) {
+		return items(name, pricePaise, 1).get(0);
+	}
+
+	public List<MenuItem> items(String name, long pricePaise, int count) {
+		String suffix = UUID.randomUUID().toString();
+		Category category = categoryService.createCategory(Category.builder().name("Menu " + suffix).build());
+		return IntStream.range(0, count)
+				.mapToObj(i -> menuItemService.createMenuItem(MenuItem.builder()
+						.name(name + (count == 1 ? "" : " " + i) + " " + suffix)
+						.pricePaise(pricePaise)
+						.category(category)
+						.build()))
+				.toList();
+	}
+}
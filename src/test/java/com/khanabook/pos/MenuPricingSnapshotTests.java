@@ -0,0 +1,184 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.exception.InvalidOrderItemsException;
+import com.khanabook.pos.model.Category;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.repository.CategoryRepository;
+import com.khanabook.pos.repository.MenuItemRepository;
+import com.khanabook.pos.service.MenuPricingSnapshot;
+import com.khanabook.pos.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:menu-pricing;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class MenuPricingSnapshotTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private MenuPricingSnapshot menuPricingSnapshot;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Test
+	void itemInsertedViaRepositoryIsOrderableImmediately() {
+		menuPricingSnapshot.current();
+		MenuItem dal = saveMenuItem("Dal Makhani", 22000L, true);
+
+		OrderResponse order = orderService.createOrder(takeaway(dal.getId()));
+
+		assertThat(order.getTotalAmountPaise()).isEqualTo(22000L);
+	}
+
+	@Test
+	void everyBadLineIsReportedAtOnce() {
+		MenuItem soldOut = saveMenuItem("Gulab Jamun", 8000L, false);
+
+		InvalidOrderItemsException e = catchThrowableOfType(
+				() -> orderService.createOrder(takeaway(soldOut.getId(), -1L, -2L)), InvalidOrderItemsException.class);
+
+		assertThat(e.getMissingMenuItemIds()).containsExactly(-1L, -2L);
+		assertThat(e.getUnavailableMenuItems()).containsExactly(soldOut.getName());
+	}
+
+	@Test
+	void snapshotIsServedFromMemoryUntilItIsTooOld() throws InterruptedException {
+		MenuItemRepository repository = mock(MenuItemRepository.class);
+		when(repository.findPricingRows()).thenReturn(rows(1L, 10000L), rows(1L, 12000L));
+		MenuPricingSnapshot snapshot = snapshot(repository, 50);
+
+		assertThat(snapshot.current().get(1L).pricePaise()).isEqualTo(10000L);
+		assertThat(snapshot.current().get(1L).pricePaise()).isEqualTo(10000L);
+		verify(repository, times(1)).findPricingRows();
+
+		Thread.sleep(80);
+		assertThat(snapshot.current().get(1L).pricePaise()).isEqualTo(12000L);
+	}
+
+	@Test
+	void unknownItemIsLoadedOnItsOwnAndKept() {
+		MenuItemRepository repository = mock(MenuItemRepository.class);
+		when(repository.findPricingRows()).thenReturn(rows(1L, 10000L));
+		when(repository.findPricingRowsByIdIn(Set.of(2L))).thenReturn(rows(2L, 5000L));
+		MenuPricingSnapshot snapshot = snapshot(repository, 60_000);
+		snapshot.current();
+
+		assertThat(snapshot.resolve(List.of(1L, 2L)).get(2L).pricePaise()).isEqualTo(5000L);
+		assertThat(snapshot.resolve(List.of(1L, 2L)).get(1L).pricePaise()).isEqualTo(10000L);
+		verify(repository, times(1)).findPricingRows();
+		verify(repository, times(1)).findPricingRowsByIdIn(anyCollection());
+	}
+
+	@Test
+	void repeatedUnknownIdsDoNotRereadTheMenu() {
+		MenuItemRepository repository = mock(MenuItemRepository.class);
+		when(repository.findPricingRows()).thenReturn(rows(1L, 10000L));
+		MenuPricingSnapshot snapshot = snapshot(repository, 60_000);
+		MenuPricingSnapshot.Snapshot loaded = snapshot.current();
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(snapshot.resolve(List.of(1L, -1L))).isSameAs(loaded);
+		}
+		verify(repository, times(1)).findPricingRows();
+		verify(repository, times(20)).findPricingRowsByIdIn(Set.of(-1L));
+	}
+
+	@Test
+	void snapshotReadAcrossAnInvalidationIsNotKept() {
+		MenuItemRepository repository = mock(MenuItemRepository.class);
+		MenuPricingSnapshot snapshot = snapshot(repository, 60_000);
+		when(repository.findPricingRows()).thenAnswer(invocation -> {
+			// A menu write commits while the load is still reading
+			snapshot.invalidate();
+			return rows(1L, 10000L);
+		}).thenReturn(rows(1L, 12000L));
+
+		assertThat(snapshot.current().get(1L).pricePaise()).isEqualTo(10000L);
+		assertThat(snapshot.current().get(1L).pricePaise()).isEqualTo(12000L);
+	}
+
+	@Test
+	void invalidationInsideATransactionWaitsForCommit() {
+		MenuItemRepository repository = mock(MenuItemRepository.class);
+		when(repository.findPricingRows()).thenReturn(rows(1L, 10000L), rows(1L, 12000L));
+		MenuPricingSnapshot snapshot = snapshot(repository, 60_000);
+		MenuPricingSnapshot.Snapshot before = snapshot.current();
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			snapshot.invalidate();
+			assertThat(snapshot.current()).isSameAs(before);
+			TransactionSynchronizationUtils.triggerAfterCommit();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(snapshot.current().get(1L).pricePaise()).isEqualTo(12000L);
+	}
+
+	private MenuPricingSnapshot snapshot(MenuItemRepository repository, long maxAgeMs) {
+		MenuPricingSnapshot snapshot = new MenuPricingSnapshot(repository);
+		ReflectionTestUtils.setField(snapshot, "maxAgeMs", maxAgeMs);
+		return snapshot;
+	}
+
+	private List<Object[]> rows(Long id, Long pricePaise) {
+		List<Object[]> rows = new ArrayList<>();
+		rows.add(new Object[] { id, "Item " + id, pricePaise, true });
+		return rows;
+	}
+
+	private OrderRequest takeaway(Long... menuItemIds) {
+		List<OrderItemRequest> items = new ArrayList<>();
+		for (Long menuItemId : menuItemIds) {
+			OrderItemRequest item = new OrderItemRequest();
+			item.setMenuItemId(menuItemId);
+			item.setQuantity(1);
+			items.add(item);
+		}
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.TAKEAWAY);
+		request.setItems(items);
+		return request;
+	}
+
+	// Straight through the repository, bypassing MenuItemService and its snapshot invalidation
+	private MenuItem saveMenuItem(String name, long pricePaise, boolean available) {
+		String suffix = UUID.randomUUID().toString();
+		Category category = categoryRepository.save(Category.builder().name("Menu " + suffix).build());
+		return menuItemRepository.save(MenuItem.builder()
+				.name(name + " " + suffix)
+				.pricePaise(pricePaise)
+				.available(available)
+				.category(category)
+				.build());
+	}
+}
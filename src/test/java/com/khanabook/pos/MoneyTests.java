@@ -0,0 +1,62 @@
+package com.khanabook.pos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MoneyTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Test
+	void orderTotalsAreExactAndRenderedInRupees() throws Exception {
+		// 3 x 0.10 is 0.30000000000000004 in doubles
+		MenuItem menuItem = menuFixture.item("Lemonade", 10L);
+
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuItem.getId());
+		item.setQuantity(3);
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.TAKEAWAY);
+		request.setItems(List.of(item));
+
+		OrderResponse order = orderService.createOrder(request);
+		assertThat(order.getTotalAmountPaise()).isEqualTo(30L);
+
+		assertThat(objectMapper.writeValueAsString(order))
+				.contains("\"totalAmount\":0.30", "\"price\":0.10", "\"subtotal\":0.30")
+				.doesNotContain("Paise");
+	}
+
+	@Test
+	void menuPricesAreReadWithoutRounding() throws Exception {
+		assertThat(objectMapper.readValue("{\"name\":\"Chai\",\"price\":19.99}", MenuItem.class).getPricePaise())
+				.isEqualTo(1999L);
+		assertThat(objectMapper.readValue("{\"name\":\"Chai\",\"price\":\"20\"}", MenuItem.class).getPricePaise())
+				.isEqualTo(2000L);
+		assertThatThrownBy(() -> objectMapper.readValue("{\"name\":\"Chai\",\"price\":19.999}", MenuItem.class))
+				.hasMessageContaining("decimal places");
+	}
+}
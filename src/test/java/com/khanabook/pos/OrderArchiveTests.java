@@ -0,0 +1,102 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.response.SalesRecord;
+import com.khanabook.pos.model.ArchivedOrderItem;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderItem;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.repository.ArchivedOrderItemRepository;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.service.OrderArchiver;
+import com.khanabook.pos.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderArchiveTests {
+
+	@Autowired
+	private OrderArchiver orderArchiver;
+
+	@Autowired
+	private ReportService reportService;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Test
+	void oldFinishedOrdersMoveToArchiveAndStayInReports() {
+		MenuItem menuItem = menuFixture.item("Gulab Jamun", 8000L);
+		LocalDateTime placedAt = LocalDateTime.now().minusDays(200).withNano(0);
+		CustomerOrder completed = saveOrder(menuItem, OrderStatus.COMPLETED, placedAt);
+		CustomerOrder cancelled = saveOrder(menuItem, OrderStatus.CANCELLED, placedAt);
+		CustomerOrder served = saveOrder(menuItem, OrderStatus.SERVED, placedAt);
+		CustomerOrder recent = saveOrder(menuItem, OrderStatus.COMPLETED, null);
+
+		LocalDateTime from = placedAt.minusMinutes(1);
+		LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+		long revenueBefore = reportService.getTotalRevenuePaiseBetweenDates(from, to);
+
+		assertThat(orderArchiver.archiveOlderThan(LocalDateTime.now().minusDays(90))).isGreaterThanOrEqualTo(2);
+
+		assertThat(orderRepository.findById(completed.getId())).isEmpty();
+		assertThat(orderRepository.findById(cancelled.getId())).isEmpty();
+		assertThat(orderRepository.findById(served.getId())).isPresent();
+		assertThat(orderRepository.findById(recent.getId())).isPresent();
+
+		List<ArchivedOrderItem> items = archivedOrderItemRepository.findByOrderId(completed.getId());
+		assertThat(items).hasSize(2).allSatisfy(item -> {
+			assertThat(item.getMenuItemName()).isEqualTo(menuItem.getName());
+			assertThat(item.getArchiveMonth()).isEqualTo(placedAt.getYear() * 100 + placedAt.getMonthValue());
+		});
+
+		assertThat(reportService.getTotalRevenuePaiseBetweenDates(from, to)).isEqualTo(revenueBefore);
+		List<SalesRecord> sales = reportService.getSalesBetweenDates(from, to);
+		assertThat(sales).filteredOn(SalesRecord::isArchived).extracting(SalesRecord::getOrderId)
+				.contains(completed.getId(), cancelled.getId());
+		assertThat(sales).filteredOn(sale -> !sale.isArchived()).extracting(SalesRecord::getOrderId)
+				.contains(served.getId(), recent.getId());
+	}
+
+	private CustomerOrder saveOrder(MenuItem menuItem, OrderStatus status, LocalDateTime createdAt) {
+		CustomerOrder order = CustomerOrder.builder()
+				.orderType(OrderType.TAKEAWAY)
+				.status(status)
+				.totalAmountPaise(2 * menuItem.getPricePaise())
+				.build();
+		for (int i = 0; i < 2; i++) {
+			order.getOrderItems().add(OrderItem.builder()
+					.customerOrder(order)
+					.menuItem(menuItem)
+					.quantity(1)
+					.pricePaise(menuItem.getPricePaise())
+					.build());
+		}
+		order = orderRepository.save(order);
+		if (createdAt != null) {
+			// createdAt is stamped on persist, so backdate it directly
+			jdbcTemplate.update("UPDATE customer_orders SET created_at = ? WHERE id = ?", createdAt, order.getId());
+		}
+		return order;
+	}
+}
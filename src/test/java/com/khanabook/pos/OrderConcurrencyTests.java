@@ -0,0 +1,194 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.QrOrderRequest;
+import com.khanabook.pos.exception.InvalidOrderStateException;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.model.RestaurantTable;
+import com.khanabook.pos.model.TableStatus;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.repository.RestaurantTableRepository;
+import com.khanabook.pos.repository.WhatsAppOutboxRepository;
+import com.khanabook.pos.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderConcurrencyTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private RestaurantTableRepository tableRepository;
+
+	@Autowired
+	private WhatsAppOutboxRepository outboxRepository;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Test
+	void completingLastOrderDoesNotFreeTableSeatedConcurrently() throws Exception {
+		MenuItem menuItem = menuFixture.item("Paneer Tikka", 15000L);
+
+		for (int round = 0; round < 10; round++) {
+			RestaurantTable table = tableRepository.save(RestaurantTable.builder()
+					.name("T-" + UUID.randomUUID())
+					.status(TableStatus.OCCUPIED)
+					.build());
+			CustomerOrder served = orderRepository.save(CustomerOrder.builder()
+					.orderType(OrderType.DINE_IN)
+					.status(OrderStatus.SERVED)
+					.restaurantTable(table)
+					.totalAmountPaise(0L)
+					.build());
+
+			QrOrderRequest request = new QrOrderRequest();
+			request.setQrToken(table.getQrToken());
+			request.setItems(List.of(item(menuItem)));
+
+			runConcurrently(List.of(
+					() -> orderService.updateOrderStatus(served.getId(), OrderStatus.COMPLETED),
+					() -> orderService.createQrOrder(request)));
+
+			assertThat(tableRepository.findById(table.getId()).orElseThrow().getStatus())
+					.as("round %d", round)
+					.isEqualTo(TableStatus.OCCUPIED);
+		}
+	}
+
+	@Test
+	void finishingTheLastTwoOrdersTogetherFreesTheTable() throws Exception {
+		for (int round = 0; round < 10; round++) {
+			RestaurantTable table = tableRepository.save(RestaurantTable.builder()
+					.name("T-" + UUID.randomUUID())
+					.status(TableStatus.OCCUPIED)
+					.build());
+			CustomerOrder first = servedOrder(table);
+			CustomerOrder second = servedOrder(table);
+
+			List<Throwable> failures = runConcurrently(List.of(
+					() -> orderService.updateOrderStatus(first.getId(), OrderStatus.COMPLETED),
+					() -> orderService.updateOrderStatus(second.getId(), OrderStatus.COMPLETED)));
+
+			assertThat(failures).as("round %d", round).isEmpty();
+			assertThat(tableRepository.findById(table.getId()).orElseThrow().getStatus())
+					.as("round %d", round)
+					.isEqualTo(TableStatus.AVAILABLE);
+		}
+	}
+
+	@Test
+	void concurrentConfirmationsApplyExactlyOnce() throws Exception {
+		CustomerOrder order = orderRepository.save(CustomerOrder.builder()
+				.orderType(OrderType.TAKEAWAY)
+				.status(OrderStatus.PENDING)
+				.totalAmountPaise(0L)
+				.build());
+
+		List<Callable<Object>> tasks = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			tasks.add(() -> orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED));
+		}
+
+		List<Throwable> failures = runConcurrently(tasks);
+
+		assertThat(failures).hasSize(7);
+		assertThat(failures).allSatisfy(failure -> assertThat(failure)
+				.isInstanceOfAny(InvalidOrderStateException.class, OptimisticLockingFailureException.class));
+		assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus())
+				.isEqualTo(OrderStatus.CONFIRMED);
+	}
+
+	@Test
+	void doubleTappedBillIsQueuedOnce() throws Exception {
+		for (int round = 0; round < 10; round++) {
+			CustomerOrder order = orderRepository.save(CustomerOrder.builder()
+					.orderType(OrderType.TAKEAWAY)
+					.status(OrderStatus.COMPLETED)
+					.customerPhone("+919800000000")
+					.totalAmountPaise(0L)
+					.build());
+
+			List<Throwable> failures = runConcurrently(List.of(
+					() -> {
+						orderService.sendWhatsAppBill(order.getId());
+						return null;
+					},
+					() -> {
+						orderService.sendWhatsAppBill(order.getId());
+						return null;
+					}));
+
+			assertThat(failures).as("round %d", round).isEmpty();
+			assertThat(outboxRepository.findByOrderId(order.getId())).as("round %d", round).hasSize(1);
+		}
+	}
+
+	// Releases all tasks at once and returns the exceptions of the ones that failed
+	private List<Throwable> runConcurrently(List<Callable<Object>> tasks) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			for (Callable<Object> task : tasks) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+			}
+			start.countDown();
+
+			List<Throwable> failures = new ArrayList<>();
+			for (Future<Object> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					failures.add(e.getCause());
+				}
+			}
+			return failures;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private CustomerOrder servedOrder(RestaurantTable table) {
+		return orderRepository.save(CustomerOrder.builder()
+				.orderType(OrderType.DINE_IN)
+				.status(OrderStatus.SERVED)
+				.restaurantTable(table)
+				.totalAmountPaise(0L)
+				.build());
+	}
+
+	private OrderItemRequest item(MenuItem menuItem) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuItem.getId());
+		item.setQuantity(1);
+		return item;
+	}
+}
@@ -0,0 +1,146 @@
+package com.khanabook.pos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own database, so the listing holds exactly the orders each test writes
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-cursor;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "WAITER")
+class OrderCursorTests {
+
+	private static final LocalDateTime RUSH = LocalDateTime.of(2026, 10, 16, 20, 15, 30, 123_456_000);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void clearOrders() {
+		orderRepository.deleteAll();
+	}
+
+	@Test
+	void cursorRoundTripsIncludingFractionalSeconds() {
+		KeysetCursor cursor = new KeysetCursor(RUSH, 4242L);
+
+		assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+		assertThat(KeysetCursor.decode(null)).isEqualTo(KeysetCursor.FIRST);
+		assertThat(KeysetCursor.decode(" ")).isEqualTo(KeysetCursor.FIRST);
+	}
+
+	@Test
+	void pagesWalkEveryOrderOnceWithTiesBrokenById() throws Exception {
+		List<Long> tied = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			tied.add(order(OrderStatus.PENDING, RUSH));
+		}
+		Long earlier = order(OrderStatus.PENDING, RUSH.minusMinutes(1));
+		Long later = order(OrderStatus.PENDING, RUSH.plusMinutes(1));
+
+		// Page size 2 puts a page boundary inside the run of equal timestamps
+		List<Long> walked = walk("/api/orders/cursor", 2);
+
+		assertThat(walked).containsExactly(later, tied.get(3), tied.get(2), tied.get(1), tied.get(0), earlier);
+	}
+
+	@Test
+	void statusPagesOnlyWalkThatStatus() throws Exception {
+		Long first = order(OrderStatus.CANCELLED, RUSH);
+		order(OrderStatus.PENDING, RUSH);
+		Long second = order(OrderStatus.CANCELLED, RUSH);
+		Long third = order(OrderStatus.CANCELLED, RUSH.minusSeconds(1));
+
+		assertThat(walk("/api/orders/status/CANCELLED/cursor", 1)).containsExactly(second, first, third);
+	}
+
+	@Test
+	void lastPageHasNoNextCursor() throws Exception {
+		order(OrderStatus.PENDING, RUSH);
+		order(OrderStatus.PENDING, RUSH);
+
+		mockMvc.perform(get("/api/orders/cursor").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(2))
+				.andExpect(jsonPath("$.hasNext").value(false))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist());
+	}
+
+	@Test
+	void garbageOrTamperedCursorIsABadRequest() throws Exception {
+		String tampered = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("2026-13-45T25:00|12' OR 1=1".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : List.of("not a cursor!", "bm8tc2VwYXJhdG9y", tampered)) {
+			mockMvc.perform(get("/api/orders/cursor").param("cursor", cursor))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.message").value("Invalid cursor"));
+		}
+		mockMvc.perform(get("/api/orders/cursor").param("size", "0"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private List<Long> walk(String path, int size) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder request = get(path).param("size", Integer.toString(size));
+			if (cursor != null) {
+				request.param("cursor", cursor);
+			}
+			JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString());
+			page.get("content").forEach(order -> ids.add(order.get("id").asLong()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			assertThat(page.get("hasNext").asBoolean()).isEqualTo(cursor != null);
+		} while (cursor != null);
+		return ids;
+	}
+
+	// createdAt is stamped on insert, so the exact timestamp is written afterwards
+	private Long order(OrderStatus status, LocalDateTime createdAt) {
+		Long id = orderRepository.save(CustomerOrder.builder()
+				.orderType(OrderType.TAKEAWAY)
+				.status(status)
+				.totalAmountPaise(0L)
+				.build()).getId();
+		jdbcTemplate.update("UPDATE customer_orders SET created_at = ? WHERE id = ?", createdAt, id);
+		return id;
+	}
+}
@@ -0,0 +1,92 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderItem;
+import com.khanabook.pos.repository.KptRepository;
+import com.khanabook.pos.repository.MenuItemRepository;
+import com.khanabook.pos.service.KptIndex;
+import com.khanabook.pos.service.MenuPricingSnapshot;
+import com.khanabook.pos.service.impl.OrderLinePricer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Line pricing and KPT estimation, run for every created, edited or synced order. The repositories
+ * are stubs answering from {@link BenchmarkFixtures}, so the numbers are the pricer's own cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderLinePricerBenchmark {
+
+	@Param({ "3", "8", "25" })
+	private int lines;
+
+	private OrderLinePricer pricer;
+	private MenuPricingSnapshot.Snapshot pricing;
+	private List<OrderItemRequest> itemRequests;
+	private CustomerOrder order;
+
+	@Setup
+	public void setUp() {
+		List<MenuItem> menu = BenchmarkFixtures.menu(80);
+		Map<Long, MenuItem> menuById = menu.stream().collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+		MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+		when(menuItemRepository.getReferenceById(anyLong()))
+				.thenAnswer(invocation -> menuById.get(invocation.<Long>getArgument(0)));
+
+		// Three quarters of the menu has a recorded KPT; the rest falls back to the default
+		List<Object[]> estimates = new ArrayList<>();
+		for (MenuItem item : menu.subList(0, 60)) {
+			estimates.add(new Object[] { item.getId(), (int) (8 + item.getId() % 20) });
+		}
+		KptRepository kptRepository = mock(KptRepository.class);
+		when(kptRepository.findAllEstimates()).thenReturn(estimates);
+		KptIndex kptIndex = new KptIndex(kptRepository);
+		ReflectionTestUtils.setField(kptIndex, "defaultMinutes", 15);
+		kptIndex.reload();
+
+		pricer = new OrderLinePricer(menuItemRepository, kptIndex);
+		pricing = BenchmarkFixtures.pricing(menu);
+		itemRequests = BenchmarkFixtures.itemRequests(menu, lines, 7);
+		order = BenchmarkFixtures.order(menu, lines, 7);
+	}
+
+	@Benchmark
+	public List<OrderItem> createOrderItems() {
+		return pricer.createOrderItems(itemRequests, order, pricing);
+	}
+
+	@Benchmark
+	public Integer calculateEstimatedKpt() {
+		pricer.calculateEstimatedKpt(order);
+		return order.getEstimatedKptMinutes();
+	}
+}
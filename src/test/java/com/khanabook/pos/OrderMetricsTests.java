@@ -0,0 +1,133 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.service.MenuItemService;
+import com.khanabook.pos.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-metrics;DB_CLOSE_DELAY=-1",
+		"metrics.scrape.password=" + OrderMetricsTests.SCRAPE_PASSWORD })
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class OrderMetricsTests {
+
+	static final String SCRAPE_PASSWORD = "scrape-secret";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private MenuItemService menuItemService;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Test
+	void everyStageOfAnOrderIsTimed() {
+		Long orderId = orderService.createOrder(takeaway(menuFixture.item("Paneer Tikka", 25000L))).getId();
+		for (OrderStatus status : List.of(OrderStatus.CONFIRMED, OrderStatus.IN_KITCHEN, OrderStatus.READY_TO_SERVE,
+				OrderStatus.SERVED)) {
+			orderService.updateOrderStatus(orderId, status);
+		}
+
+		for (String stage : List.of("created_to_confirmed", "confirmed_to_kitchen", "kitchen_to_ready",
+				"ready_to_served")) {
+			assertThat(meterRegistry.get("orders.stage.duration").tag("stage", stage).tag("type", "TAKEAWAY").timer()
+					.count()).as(stage).isEqualTo(1);
+		}
+		// Marked ready straight away, well inside any estimate
+		assertThat(meterRegistry.get("orders.kpt.error").tag("direction", "early").summary().count()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectedTransitionRecordsNothing() {
+		Long orderId = orderService.createOrder(takeaway(menuFixture.item("Paneer Tikka", 25000L))).getId();
+		double before = stageCount("confirmed_to_kitchen");
+
+		try {
+			orderService.updateOrderStatus(orderId, OrderStatus.IN_KITCHEN);
+		} catch (RuntimeException expected) {
+			// PENDING cannot skip straight to the kitchen
+		}
+		assertThat(stageCount("confirmed_to_kitchen")).isEqualTo(before);
+	}
+
+	@Test
+	void menuCacheHitsAreCounted() {
+		PageRequest page = PageRequest.of(0, 20);
+		menuItemService.getAllMenuItems(page);
+		double hits = cacheGets("hit");
+
+		menuItemService.getAllMenuItems(page);
+		assertThat(cacheGets("hit")).isEqualTo(hits + 1);
+	}
+
+	@Test
+	void prometheusEndpointIsScrapedWithTheScrapeAccount() throws Exception {
+		orderService.createOrder(takeaway(menuFixture.item("Paneer Tikka", 25000L)));
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+		String body = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", SCRAPE_PASSWORD)))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		assertThat(body).contains("hikaricp_connections_acquire_seconds", "cache_gets_total{",
+				"http_server_requests_seconds");
+	}
+
+	@Test
+	void prometheusEndpointRefusesEveryoneElse() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+				.andExpect(status().isUnauthorized());
+		// An application login, even an admin's, is not the scrape account
+		mockMvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+				.andExpect(status().isForbidden());
+	}
+
+	private double stageCount(String stage) {
+		var timer = meterRegistry.find("orders.stage.duration").tag("stage", stage).timer();
+		return timer != null ? timer.count() : 0;
+	}
+
+	private double cacheGets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "menuItems").tag("result", result).functionCounter()
+				.count();
+	}
+
+	private OrderRequest takeaway(MenuItem menuItem) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuItem.getId());
+		item.setQuantity(2);
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.TAKEAWAY);
+		request.setItems(List.of(item));
+		return request;
+	}
+}
@@ -0,0 +1,65 @@
+package com.khanabook.pos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.service.impl.OrderResponseMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Response bodies as the API writes them: one order, and a 20 order listing page. The mapper is
+ * built the way Spring Boot builds the application's, so the paise serializers and date handling
+ * are included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderResponseJsonBenchmark {
+
+	private ObjectWriter orderWriter;
+	private ObjectWriter pageWriter;
+	private OrderResponse order;
+	private List<OrderResponse> page;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		orderWriter = objectMapper.writerFor(OrderResponse.class);
+		pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+				.constructCollectionType(List.class, OrderResponse.class));
+
+		List<MenuItem> menu = BenchmarkFixtures.menu(80);
+		order = OrderResponseMapper.toResponse(BenchmarkFixtures.order(menu, 8, 7));
+		page = LongStream.range(0, 20)
+				.mapToObj(seed -> OrderResponseMapper.toResponse(BenchmarkFixtures.order(menu, 2 + (int) (seed % 7), seed)))
+				.toList();
+	}
+
+	@Benchmark
+	public byte[] serializeOrder() throws Exception {
+		return orderWriter.writeValueAsBytes(order);
+	}
+
+	@Benchmark
+	public byte[] serializeOrderPage() throws Exception {
+		return pageWriter.writeValueAsBytes(page);
+	}
+}
@@ -0,0 +1,131 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderItem;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.model.RestaurantTable;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.repository.RestaurantTableRepository;
+import com.khanabook.pos.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStatementCountTests {
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private RestaurantTableRepository tableRepository;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void savingTwentyItemOrderBatchesInserts() {
+		MenuItem menuItem = menuFixture.item("Chicken Biryani", 15000L);
+
+		// IDENTITY ids ruled out JDBC batching, so the baseline is the same save with batching off
+		long unbatched = statementsToSave(menuItem, 1);
+		long batched = statementsToSave(menuItem, null);
+
+		// Pooled ids leave one batched insert per table plus a couple of sequence calls
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(21);
+		assertThat(unbatched).isGreaterThanOrEqualTo(21);
+		assertThat(batched).isLessThanOrEqualTo(6).isLessThan(unbatched / 3);
+	}
+
+	@Test
+	void listingOrdersLoadsItemsInOneBatchedQuery() {
+		MenuItem menuItem = menuFixture.item("Chicken Biryani", 15000L);
+		RestaurantTable table = tableRepository.save(RestaurantTable.builder().name("T-" + UUID.randomUUID()).build());
+		for (int i = 0; i < 5; i++) {
+			CustomerOrder order = CustomerOrder.builder()
+					.orderType(OrderType.DINE_IN)
+					.restaurantTable(table)
+					.totalAmountPaise(3 * 15000L)
+					.build();
+			for (int j = 0; j < 3; j++) {
+				order.getOrderItems().add(OrderItem.builder()
+						.customerOrder(order)
+						.menuItem(menuItem)
+						.quantity(1)
+						.pricePaise(15000L)
+						.build());
+			}
+			orderRepository.save(order);
+		}
+
+		statistics.clear();
+		Page<OrderResponse> page = orderService.getAllOrders(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")));
+
+		// Page query, count query, items query; the entity path issued one query per table, item list and menu item
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(page.getContent()).hasSize(5).allSatisfy(order -> {
+			assertThat(order.getTableName()).isEqualTo(table.getName());
+			assertThat(order.getItems()).hasSize(3)
+					.allSatisfy(item -> assertThat(item.getMenuItemName()).isEqualTo(menuItem.getName()));
+		});
+	}
+
+	private long statementsToSave(MenuItem menuItem, Integer jdbcBatchSize) {
+		statistics.clear();
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+			CustomerOrder order = CustomerOrder.builder()
+					.orderType(OrderType.TAKEAWAY)
+					.totalAmountPaise(20 * 15000L)
+					.build();
+			for (int i = 0; i < 20; i++) {
+				order.getOrderItems().add(OrderItem.builder()
+						.customerOrder(order)
+						.menuItem(menuItem)
+						.quantity(1)
+						.pricePaise(15000L)
+						.build());
+			}
+			orderRepository.save(order);
+		});
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,201 @@
+package com.khanabook.pos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khanabook.pos.dto.request.OfflineOrderRequest;
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.request.OrderSyncRequest;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.model.RestaurantTable;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.repository.RestaurantTableRepository;
+import com.khanabook.pos.service.MenuPricingSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-sync;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "WAITER")
+class OrderSyncTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private RestaurantTableRepository tableRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	// Only called by the lookup pass, so a hook here runs between lookup and persist
+	@SpyBean
+	private MenuPricingSnapshot menuPricingSnapshot;
+
+	@AfterEach
+	void resetSnapshot() {
+		reset(menuPricingSnapshot);
+	}
+
+	@Test
+	void resyncingAQueueReportsDuplicates() throws Exception {
+		MenuItem chai = menuFixture.item("Masala Chai", 2000L);
+		OfflineOrderRequest offline = offline(UUID.randomUUID(), takeaway(chai));
+
+		sync(offline)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(1))
+				.andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+				.andExpect(jsonPath("$.results[0].order.totalAmount").value(20.0));
+
+		sync(offline)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(0))
+				.andExpect(jsonPath("$.duplicates").value(1))
+				.andExpect(jsonPath("$.results[0].outcome").value("DUPLICATE"));
+	}
+
+	@Test
+	void badOrdersAreRejectedWithoutSinkingTheRest() throws Exception {
+		MenuItem chai = menuFixture.item("Masala Chai", 2000L);
+		UUID good = UUID.randomUUID();
+		UUID repeated = UUID.randomUUID();
+
+		sync(offline(good, takeaway(chai)),
+				offline(repeated, takeaway(chai)),
+				offline(repeated, takeaway(chai)),
+				offline(UUID.randomUUID(), dineIn(-1L, chai)),
+				offline(UUID.randomUUID(), takeaway(-1L)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(2))
+				.andExpect(jsonPath("$.rejected").value(2))
+				.andExpect(jsonPath("$.results.length()").value(4))
+				.andExpect(jsonPath("$.results[0].clientOrderId").value(good.toString()))
+				.andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+				.andExpect(jsonPath("$.results[1].clientOrderId").value(repeated.toString()))
+				.andExpect(jsonPath("$.results[1].outcome").value("CREATED"))
+				.andExpect(jsonPath("$.results[2].error").value("Table not found: -1"))
+				.andExpect(jsonPath("$.results[3].outcome").value("REJECTED"));
+	}
+
+	@Test
+	void orderCommittedByAConcurrentSyncIsADuplicate() throws Exception {
+		MenuItem chai = menuFixture.item("Masala Chai", 2000L);
+		UUID clientOrderId = UUID.randomUUID();
+		UUID other = UUID.randomUUID();
+		CustomerOrder[] committedElsewhere = new CustomerOrder[1];
+		afterLookup(() -> committedElsewhere[0] = orderRepository.save(CustomerOrder.builder()
+				.clientOrderId(clientOrderId.toString())
+				.orderType(OrderType.TAKEAWAY)
+				.totalAmountPaise(2000L)
+				.build()));
+
+		sync(offline(clientOrderId, takeaway(chai)), offline(other, takeaway(chai)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(1))
+				.andExpect(jsonPath("$.duplicates").value(1))
+				.andExpect(jsonPath("$.results[0].outcome").value("DUPLICATE"))
+				.andExpect(jsonPath("$.results[0].order.id").value(committedElsewhere[0].getId()))
+				.andExpect(jsonPath("$.results[1].outcome").value("CREATED"));
+	}
+
+	@Test
+	void tableDeletedBeforePersistRejectsOnlyItsOrder() throws Exception {
+		MenuItem chai = menuFixture.item("Masala Chai", 2000L);
+		RestaurantTable table = tableRepository.save(RestaurantTable.builder().name("T-" + UUID.randomUUID()).build());
+		afterLookup(() -> tableRepository.deleteById(table.getId()));
+
+		sync(offline(UUID.randomUUID(), dineIn(table.getId(), chai)), offline(UUID.randomUUID(), takeaway(chai)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(1))
+				.andExpect(jsonPath("$.rejected").value(1))
+				.andExpect(jsonPath("$.results[0].error").value(startsWith("Table not found")))
+				.andExpect(jsonPath("$.results[1].outcome").value("CREATED"));
+	}
+
+	// Commits the change on its own connection, as another request would
+	private void afterLookup(Runnable change) {
+		TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+		concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		doAnswer(invocation -> {
+			Object snapshot = invocation.callRealMethod();
+			concurrent.executeWithoutResult(status -> change.run());
+			return snapshot;
+		}).when(menuPricingSnapshot).resolve(anyCollection());
+	}
+
+	private ResultActions sync(OfflineOrderRequest... orders) throws Exception {
+		OrderSyncRequest request = new OrderSyncRequest();
+		request.setOrders(List.of(orders));
+		return mockMvc.perform(post("/api/orders/sync")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(request)));
+	}
+
+	private OfflineOrderRequest offline(UUID clientOrderId, OrderRequest order) {
+		OfflineOrderRequest offline = new OfflineOrderRequest();
+		offline.setClientOrderId(clientOrderId);
+		offline.setOrder(order);
+		return offline;
+	}
+
+	private OrderRequest takeaway(MenuItem menuItem) {
+		return takeaway(menuItem.getId());
+	}
+
+	private OrderRequest takeaway(Long menuItemId) {
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.TAKEAWAY);
+		request.setItems(List.of(item(menuItemId)));
+		return request;
+	}
+
+	private OrderRequest dineIn(Long tableId, MenuItem menuItem) {
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.DINE_IN);
+		request.setTableId(tableId);
+		request.setItems(List.of(item(menuItem.getId())));
+		return request;
+	}
+
+	private OrderItemRequest item(Long menuItemId) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuItemId);
+		item.setQuantity(1);
+		return item;
+	}
+}
@@ -0,0 +1,140 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.model.Role;
+import com.khanabook.pos.model.User;
+import com.khanabook.pos.repository.UserRepository;
+import com.khanabook.pos.security.JwtUtil;
+import com.khanabook.pos.security.TokenDenylist;
+import com.khanabook.pos.security.UserDetailsServiceImpl;
+import com.khanabook.pos.service.UserManagementService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:principal-cache;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PrincipalCacheTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserManagementService userManagementService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private TokenDenylist tokenDenylist;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@SpyBean
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Test
+	void repeatRequestsResolveThePrincipalFromCache() throws Exception {
+		User chef = createUser(Role.CHEF);
+		String token = jwtUtil.generateToken(chef);
+		double hits = principalHits();
+
+		kitchenBoard(token, status().isOk());
+		kitchenBoard(token, status().isOk());
+		kitchenBoard(token, status().isOk());
+
+		verify(userDetailsService, times(1)).loadUserByUsername(chef.getUsername());
+		assertThat(principalHits()).isEqualTo(hits + 2);
+	}
+
+	@Test
+	void roleChangeTakesEffectOnTheNextRequest() throws Exception {
+		User chef = createUser(Role.CHEF);
+		String token = jwtUtil.generateToken(chef);
+		kitchenBoard(token, status().isOk());
+
+		userManagementService.updateUserRoles(chef.getId(), Role.WAITER.name());
+
+		kitchenBoard(token, status().isForbidden());
+		verify(userDetailsService, times(2)).loadUserByUsername(chef.getUsername());
+	}
+
+	@Test
+	void deactivatedOrDeletedUsersLoseAccessImmediately() throws Exception {
+		User deactivated = createUser(Role.CHEF);
+		String deactivatedToken = jwtUtil.generateToken(deactivated);
+		User deleted = createUser(Role.CHEF);
+		String deletedToken = jwtUtil.generateToken(deleted);
+		kitchenBoard(deactivatedToken, status().isOk());
+		kitchenBoard(deletedToken, status().isOk());
+
+		userManagementService.deactivateUser(deactivated.getId());
+		userManagementService.deleteUser(deleted.getId());
+
+		kitchenBoard(deactivatedToken, status().isUnauthorized());
+		kitchenBoard(deletedToken, status().isUnauthorized());
+	}
+
+	@Test
+	void changesMadeOnAnotherInstanceApplyAtTheNextRefresh() throws Exception {
+		User deactivated = createUser(Role.CHEF);
+		String deactivatedToken = jwtUtil.generateToken(deactivated);
+		User deleted = createUser(Role.CHEF);
+		String deletedToken = jwtUtil.generateToken(deleted);
+		tokenDenylist.reload();
+		kitchenBoard(deactivatedToken, status().isOk());
+		kitchenBoard(deletedToken, status().isOk());
+
+		// What UserManagementService does on another instance, whose eviction never reaches this cache
+		jdbcTemplate.update("UPDATE users_table SET active = FALSE, token_version = token_version + 1 WHERE id = ?",
+				deactivated.getId());
+		jdbcTemplate.update("DELETE FROM users_table WHERE id = ?", deleted.getId());
+		kitchenBoard(deactivatedToken, status().isOk());
+
+		tokenDenylist.refresh();
+
+		kitchenBoard(deactivatedToken, status().isUnauthorized());
+		kitchenBoard(deletedToken, status().isUnauthorized());
+	}
+
+	private void kitchenBoard(String token, ResultMatcher expected) throws Exception {
+		mockMvc.perform(get("/api/kitchen/orders/active").header("Authorization", "Bearer " + token))
+				.andExpect(expected);
+	}
+
+	private double principalHits() {
+		return meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit").functionCounter()
+				.count();
+	}
+
+	private User createUser(Role role) {
+		return userRepository.save(User.builder()
+				.username("staff-" + UUID.randomUUID())
+				.password("{noop}unused")
+				.role(role)
+				.active(true)
+				.build());
+	}
+}
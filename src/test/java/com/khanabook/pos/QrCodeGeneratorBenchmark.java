@@ -0,0 +1,43 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.util.QrCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Same URL and image size as application.properties
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrCodeGeneratorBenchmark {
+
+	private QrCodeGenerator qrCodeGenerator;
+	private String qrToken;
+
+	@Setup
+	public void setUp() {
+		qrCodeGenerator = new QrCodeGenerator();
+		ReflectionTestUtils.setField(qrCodeGenerator, "baseUrl", "http://localhost:8081/order");
+		ReflectionTestUtils.setField(qrCodeGenerator, "size", 300);
+		qrToken = UUID.nameUUIDFromBytes("T4".getBytes()).toString();
+	}
+
+	@Benchmark
+	public String generateQrCode() throws Exception {
+		return qrCodeGenerator.generateQrCode(qrToken);
+	}
+}
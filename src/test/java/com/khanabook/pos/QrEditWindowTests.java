@@ -0,0 +1,115 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.QrOrderRequest;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.RestaurantTable;
+import com.khanabook.pos.model.TableStatus;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.repository.RestaurantTableRepository;
+import com.khanabook.pos.service.OrderService;
+import com.khanabook.pos.service.QrEditWindowScheduler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own database: rebuild() arms timers for every open window, which must not touch other contexts' orders
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:qr-edit-window;DB_CLOSE_DELAY=-1",
+		"orders.qr.auto-lock=true",
+		"orders.qr.auto-advance=IN_KITCHEN",
+		"orders.qr.timer-tick-ms=20" })
+@ActiveProfiles("test")
+class QrEditWindowTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private QrEditWindowScheduler scheduler;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private RestaurantTableRepository tableRepository;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Test
+	void expiredWindowLocksOrderExactlyOnce() {
+		Long orderId = placeQrOrder();
+		expireWindow(orderId);
+
+		assertThat(orderService.lockExpiredQrOrder(orderId, OrderStatus.CONFIRMED)).isTrue();
+		assertThat(orderService.lockExpiredQrOrder(orderId, OrderStatus.CONFIRMED)).isFalse();
+
+		CustomerOrder order = orderRepository.findById(orderId).orElseThrow();
+		assertThat(order.getIsEditable()).isFalse();
+		assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(order.getConfirmedAt()).isNotNull();
+	}
+
+	@Test
+	void openWindowIsLeftAlone() {
+		Long orderId = placeQrOrder();
+
+		assertThat(orderService.lockExpiredQrOrder(orderId, OrderStatus.IN_KITCHEN)).isFalse();
+		assertThat(orderRepository.findById(orderId).orElseThrow().isEditAllowed()).isTrue();
+		assertThat(scheduler.pendingTimers()).isPositive();
+	}
+
+	@Test
+	void timersRebuiltFromDatabaseFireAndAdvanceOrder() throws InterruptedException {
+		Long orderId = placeQrOrder();
+		expireWindow(orderId);
+
+		// Stands in for a restart: the window is re-read from the database and the timer re-armed
+		scheduler.rebuild();
+
+		CustomerOrder order = awaitStatus(orderId, OrderStatus.IN_KITCHEN);
+		assertThat(order.getIsEditable()).isFalse();
+		assertThat(order.getSentToKitchenAt()).isNotNull();
+	}
+
+	private CustomerOrder awaitStatus(Long orderId, OrderStatus status) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			CustomerOrder order = orderRepository.findById(orderId).orElseThrow();
+			if (order.getStatus() == status) {
+				return order;
+			}
+			Thread.sleep(50);
+		}
+		return orderRepository.findById(orderId).orElseThrow();
+	}
+
+	private void expireWindow(Long orderId) {
+		CustomerOrder order = orderRepository.findById(orderId).orElseThrow();
+		order.setEditableUntil(LocalDateTime.now().minusSeconds(1));
+		orderRepository.save(order);
+	}
+
+	private Long placeQrOrder() {
+		RestaurantTable table = tableRepository.save(RestaurantTable.builder()
+				.name("T-" + UUID.randomUUID())
+				.status(TableStatus.AVAILABLE)
+				.build());
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuFixture.item("Paneer Tikka", 15000L).getId());
+		item.setQuantity(1);
+
+		QrOrderRequest request = new QrOrderRequest();
+		request.setQrToken(table.getQrToken());
+		request.setItems(List.of(item));
+		return orderService.createQrOrder(request).getId();
+	}
+}
@@ -0,0 +1,78 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.repository.MenuItemRepository;
+import com.khanabook.pos.util.QueryLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:query-accounting;DB_CLOSE_DELAY=-1",
+		"query-accounting.enabled=true",
+		"query-accounting.budgets=GET /api/orders/status/**=0" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryAccountingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Test
+	@WithMockUser(roles = "WAITER")
+	void responsesCarryQueryCountAndTime() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/orders"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("X-Query-Time"))
+				.andReturn();
+
+		assertThat(Integer.parseInt(result.getResponse().getHeader("X-Query-Count"))).isPositive();
+		assertThat(Double.parseDouble(result.getResponse().getHeader("X-Query-Time"))).isNotNegative();
+	}
+
+	@Test
+	@WithMockUser(roles = "WAITER")
+	void requestOverItsBudgetFails() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/orders/status/PENDING"))
+				.andExpect(status().isInternalServerError())
+				.andReturn();
+
+		assertThat(result.getResponse().getContentAsString()).contains("Query budget exceeded",
+				"GET /api/orders/status/**=0");
+	}
+
+	@Test
+	void repeatedLookupIsFlaggedAsSuspectedNPlusOne() {
+		List<Long> ids = menuFixture.items("Roti", 3000L, 6).stream().map(MenuItem::getId).toList();
+
+		QueryLedger ledger = QueryLedger.open();
+		try {
+			// Outside a transaction every lookup gets a fresh persistence context and its own SELECT
+			ids.forEach(id -> menuItemRepository.findById(id));
+		} finally {
+			QueryLedger.close();
+		}
+
+		assertThat(ledger.count()).isEqualTo(6);
+		assertThat(ledger.repeatedSelects(5).values()).containsExactly(6);
+		assertThat(ledger.repeatedSelects(7)).isEmpty();
+	}
+}
@@ -0,0 +1,255 @@
+package com.khanabook.pos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khanabook.pos.config.ReplicaRoutingDataSource;
+import com.khanabook.pos.dto.request.OrderItemRequest;
+import com.khanabook.pos.dto.request.OrderRequest;
+import com.khanabook.pos.dto.response.OrderResponse;
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two embedded databases; "replication" is an H2 SCRIPT of the primary replayed into the replica on demand
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+		"datasource.replica.urls=" + ReadReplicaTests.REPLICA_URL,
+		"datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+		"datasource.replica.max-lag-ms=5000",
+		"datasource.replica.health-check-ms=3600000" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:replica-copy;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private CustomerOrderRepository orderRepository;
+
+	@Autowired
+	private MenuFixture menuFixture;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ApplicationContext context;
+
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	@BeforeEach
+	void replicateAndCatchUp() throws Exception {
+		replicate();
+		setReplicaLag(0);
+	}
+
+	@AfterEach
+	void clearCaller() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyListingsComeFromTheReplica() throws Exception {
+		Long orderId = savePendingOrder();
+		assertThat(listedOrderIds()).doesNotContain(orderId);
+
+		replicate();
+		setReplicaLag(0);
+		assertThat(listedOrderIds()).contains(orderId);
+	}
+
+	@Test
+	void callerSeesOwnWriteBeforeItReplicates() {
+		MenuItem menuItem = menuFixture.item("Dal Makhani", 18000L);
+
+		actAs("alice");
+		Long orderId = orderService.createOrder(takeaway(menuItem)).getId();
+		assertThat(listedOrderIds()).contains(orderId);
+
+		actAs("bob");
+		assertThat(listedOrderIds()).doesNotContain(orderId);
+	}
+
+	@Test
+	void requestsRouteEachTransactionOnItsOwn() throws Exception {
+		// A request-wide EntityManager would keep whichever connection its first transaction took
+		assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+
+		MenuItem menuItem = menuFixture.item("Paneer Tikka", 24000L);
+		Long stale = savePendingOrder();
+		replicate();
+		setReplicaLag(0);
+		Long unreplicated = savePendingOrder();
+
+		assertThat(listedOrderIdsOverHttp("bob")).contains(stale).doesNotContain(unreplicated);
+		// Rendered after the transaction closed, so the category must already be loaded
+		mockMvc.perform(get("/api/menu-items/" + menuItem.getId()).with(user("bob").roles("WAITER")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.category.name").value(menuItem.getCategory().getName()));
+
+		String created = mockMvc.perform(post("/api/orders").with(user("alice").roles("WAITER"))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(takeaway(menuItem))))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		long orderId = objectMapper.readTree(created).get("id").asLong();
+
+		String countById = "SELECT COUNT(*) FROM customer_orders WHERE id = ?";
+		assertThat(new JdbcTemplate(dataSource).queryForObject(countById, Integer.class, orderId)).isEqualTo(1);
+		assertThat(replica.queryForObject(countById, Integer.class, orderId)).isZero();
+	}
+
+	@Test
+	void laggingOrBrokenReplicaFallsBackToPrimary() {
+		Long orderId = savePendingOrder();
+
+		setReplicaLag(600);
+		assertThat(routing().healthyReplicas()).isZero();
+		assertThat(listedOrderIds()).contains(orderId);
+
+		setReplicaLag(0);
+		assertThat(listedOrderIds()).doesNotContain(orderId);
+
+		replica.execute("DROP TABLE replica_lag");
+		routing().checkReplicas();
+		assertThat(routing().healthyReplicas()).isZero();
+		assertThat(listedOrderIds()).contains(orderId);
+	}
+
+	@Test
+	void replicaWithoutALagQueryIsNeverUsed() {
+		try (ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+				new DriverManagerDataSource("jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1"),
+				List.of(new DriverManagerDataSource(REPLICA_URL, "sa", "")), Duration.ofSeconds(5), "",
+				Duration.ofHours(1))) {
+			routing.checkReplicas();
+			assertThat(routing.healthyReplicas()).isZero();
+		}
+	}
+
+	@Test
+	void explicitCredentialsConnectToThePrimary() throws Exception {
+		Long orderId = savePendingOrder();
+		DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1");
+
+		try (ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+				List.of(new DriverManagerDataSource(REPLICA_URL, "sa", "")), Duration.ofSeconds(5), "",
+				Duration.ofHours(1));
+			 Connection connection = routing.getConnection("sa", "");
+			 Statement statement = connection.createStatement();
+			 ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM customer_orders WHERE id = " + orderId)) {
+			assertThat(rows.next()).isTrue();
+			assertThat(rows.getInt(1)).isEqualTo(1);
+		}
+	}
+
+	private List<Long> listedOrderIds() {
+		return orderService.getAllOrders(PageRequest.of(0, 500)).map(OrderResponse::getId).getContent();
+	}
+
+	private List<Long> listedOrderIdsOverHttp(String username) throws Exception {
+		String body = mockMvc.perform(get("/api/orders").param("size", "500").with(user(username).roles("WAITER")))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<Long> ids = new ArrayList<>();
+		for (JsonNode order : objectMapper.readTree(body).get("content")) {
+			ids.add(order.get("id").asLong());
+		}
+		return ids;
+	}
+
+	private void replicate() throws Exception {
+		Path script = Files.createTempFile("replica", ".sql");
+		try {
+			new JdbcTemplate(dataSource).execute("SCRIPT TO '" + script.toAbsolutePath() + "'");
+			replica.execute("DROP ALL OBJECTS");
+			replica.execute("RUNSCRIPT FROM '" + script.toAbsolutePath() + "'");
+		} finally {
+			Files.deleteIfExists(script);
+		}
+	}
+
+	private void setReplicaLag(int seconds) {
+		replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds BIGINT)");
+		replica.update("DELETE FROM replica_lag");
+		replica.update("INSERT INTO replica_lag VALUES (?)", seconds);
+		routing().checkReplicas();
+	}
+
+	private ReplicaRoutingDataSource routing() {
+		try {
+			return dataSource.unwrap(ReplicaRoutingDataSource.class);
+		} catch (java.sql.SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void actAs(String username) {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+	}
+
+	private Long savePendingOrder() {
+		CustomerOrder order = orderRepository.save(CustomerOrder.builder()
+				.orderType(OrderType.TAKEAWAY)
+				.status(OrderStatus.PENDING)
+				.totalAmountPaise(0L)
+				.build());
+		return order.getId();
+	}
+
+	private OrderRequest takeaway(MenuItem menuItem) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setMenuItemId(menuItem.getId());
+		item.setQuantity(1);
+		OrderRequest request = new OrderRequest();
+		request.setOrderType(OrderType.TAKEAWAY);
+		request.setItems(List.of(item));
+		return request;
+	}
+}
@@ -0,0 +1,213 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.model.MenuItem;
+import com.khanabook.pos.model.RestaurantTable;
+import com.khanabook.pos.model.TableStatus;
+import com.khanabook.pos.repository.RestaurantTableRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-loop QR ordering load: 1,000 clients, each with its own table, posting orders back to
+ * back against the platform-thread baseline and against virtual threads. Off by default; run with
+ *
+ * <pre>
+ * mvn test -Dtest=VirtualThreadBenchmark -Dbenchmark=true \
+ *     [-Dbenchmark.datasource.url=jdbc:mysql://host/scratch_db?rewriteBatchedStatements=true]
+ * </pre>
+ *
+ * The schema is dropped and recreated, so only ever point it at a scratch database. The H2
+ * default shows the thread model's overhead; MySQL shows where the pool becomes the limit.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmark {
+
+	private static final int CLIENTS = 1000;
+	private static final Duration WARMUP = Duration.ofSeconds(10);
+	private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+	private static final Map<String, Result> RESULTS = new ConcurrentSkipListMap<>();
+
+	@AfterAll
+	static void report() {
+		RESULTS.forEach((mode, result) -> System.out.printf(
+				"%-9s %8.1f orders/s  errors=%d  p50=%dms  p99=%dms  p99.9=%dms%n", mode, result.throughput(),
+				result.errors(), result.percentileMillis(50), result.percentileMillis(99),
+				result.percentileMillis(99.9)));
+		Result platform = RESULTS.get("platform");
+		Result virtual = RESULTS.get("virtual");
+		if (platform != null && virtual != null) {
+			System.out.printf("virtual / platform throughput: %.2fx%n", virtual.throughput() / platform.throughput());
+		}
+	}
+
+	@Nested
+	@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+			"spring.threads.virtual.enabled=false",
+			"spring.datasource.url=${benchmark.datasource.url:jdbc:h2:mem:bench-platform;DB_CLOSE_DELAY=-1}",
+			"spring.jpa.show-sql=false",
+			"spring.jpa.properties.hibernate.generate_statistics=false",
+			"logging.level.org.hibernate.SQL=INFO",
+			"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+			"logging.level.com.khanabook.pos=INFO" })
+	@ActiveProfiles("test")
+	class PlatformThreads extends LoadFixture {
+
+		@Test
+		void qrOrders() throws Exception {
+			RESULTS.put("platform", run());
+		}
+	}
+
+	@Nested
+	@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+			"spring.threads.virtual.enabled=true",
+			"spring.datasource.url=${benchmark.datasource.url:jdbc:h2:mem:bench-virtual;DB_CLOSE_DELAY=-1}",
+			"spring.jpa.show-sql=false",
+			"spring.jpa.properties.hibernate.generate_statistics=false",
+			"logging.level.org.hibernate.SQL=INFO",
+			"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+			"logging.level.com.khanabook.pos=INFO" })
+	@ActiveProfiles("test")
+	class VirtualThreads extends LoadFixture {
+
+		@Test
+		void qrOrders() throws Exception {
+			RESULTS.put("virtual", run());
+		}
+	}
+
+	abstract static class LoadFixture {
+
+		@LocalServerPort
+		int port;
+
+		@Autowired
+		RestaurantTableRepository tableRepository;
+
+		@Autowired
+		MenuFixture menuFixture;
+
+		Result run() throws Exception {
+			MenuItem menuItem = menuFixture.item("Masala Chai", 2000L);
+			List<RestaurantTable> tables = tableRepository.saveAll(IntStream.range(0, CLIENTS)
+					.mapToObj(i -> RestaurantTable.builder().name("Bench-" + UUID.randomUUID())
+							.status(TableStatus.AVAILABLE).build())
+					.toList());
+
+			// Clients run on virtual threads too, so the load generator is never the bottleneck
+			try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+				HttpClient http = HttpClient.newBuilder()
+						.version(HttpClient.Version.HTTP_1_1)
+						.executor(clients)
+						.connectTimeout(Duration.ofSeconds(10))
+						.build();
+
+				long start = System.nanoTime();
+				long measureFrom = start + WARMUP.toNanos();
+				long measureUntil = measureFrom + MEASUREMENT.toNanos();
+				LongAdder errors = new LongAdder();
+
+				List<Future<long[]>> futures = new ArrayList<>();
+				for (RestaurantTable table : tables) {
+					HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/qr"))
+							.header("Content-Type", "application/json")
+							.timeout(Duration.ofSeconds(60))
+							.POST(HttpRequest.BodyPublishers.ofString("{\"qrToken\":\"" + table.getQrToken()
+									+ "\",\"items\":[{\"menuItemId\":" + menuItem.getId() + ",\"quantity\":1}]}"))
+							.build();
+					futures.add(clients.submit(() -> orderUntil(http, request, measureFrom, measureUntil, errors)));
+				}
+
+				List<long[]> latencies = new ArrayList<>();
+				for (Future<long[]> future : futures) {
+					latencies.add(future.get());
+				}
+				Result result = Result.of(latencies, MEASUREMENT, errors.sum());
+				assertThat(result.completed()).as("completed orders").isPositive();
+				return result;
+			}
+		}
+
+		// Returns the latencies, in nanoseconds, of successful orders started inside the measurement window
+		private static long[] orderUntil(HttpClient http, HttpRequest request, long measureFrom, long measureUntil,
+				LongAdder errors) {
+			long[] latencies = new long[256];
+			int count = 0;
+			long now;
+			while ((now = System.nanoTime()) < measureUntil) {
+				boolean measured = now >= measureFrom;
+				try {
+					HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() != 201) {
+						if (measured) {
+							errors.increment();
+						}
+						continue;
+					}
+				} catch (Exception e) {
+					if (measured) {
+						errors.increment();
+					}
+					continue;
+				}
+				if (measured) {
+					if (count == latencies.length) {
+						latencies = Arrays.copyOf(latencies, count * 2);
+					}
+					latencies[count++] = System.nanoTime() - now;
+				}
+			}
+			return Arrays.copyOf(latencies, count);
+		}
+	}
+
+	record Result(long[] sortedLatencies, Duration window, long errors) {
+
+		static Result of(List<long[]> perClient, Duration window, long errors) {
+			long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+			return new Result(all, window, errors);
+		}
+
+		long completed() {
+			return sortedLatencies.length;
+		}
+
+		double throughput() {
+			return completed() / (window.toMillis() / 1000.0);
+		}
+
+		long percentileMillis(double percentile) {
+			if (sortedLatencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+			return Duration.ofNanos(sortedLatencies[Math.max(0, index)]).toMillis();
+		}
+	}
+}
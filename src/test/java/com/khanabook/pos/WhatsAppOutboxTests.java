@@ -0,0 +1,155 @@
+package com.khanabook.pos;
+
+import com.khanabook.pos.model.CustomerOrder;
+import com.khanabook.pos.model.OrderStatus;
+import com.khanabook.pos.model.OrderType;
+import com.khanabook.pos.model.OutboxStatus;
+import com.khanabook.pos.model.WhatsAppOutboxMessage;
+import com.khanabook.pos.repository.CustomerOrderRepository;
+import com.khanabook.pos.repository.WhatsAppOutboxRepository;
+import com.khanabook.pos.service.OrderService;
+import com.khanabook.pos.service.WhatsAppOutboxDispatcher;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Each context gets its own database so another context's poller cannot deliver these messages
+class WhatsAppOutboxTests {
+
+	@Nested
+	@SpringBootTest(properties = {
+			"spring.datasource.url=jdbc:h2:mem:outbox-delivered;DB_CLOSE_DELAY=-1",
+			"whatsapp.provider=stub",
+			"whatsapp.stub.latency-ms=50",
+			"whatsapp.stub.failure-rate=0" })
+	@ActiveProfiles("test")
+	class Delivered extends OutboxFixture {
+
+		@Test
+		void billIsFlaggedSentOnlyAfterDelivery() {
+			CustomerOrder order = completedOrder();
+
+			orderService.sendWhatsAppBill(order.getId());
+
+			assertThat(orderRepository.findById(order.getId()).orElseThrow().getWhatsappBillSent()).isFalse();
+			assertThat(outboxRepository.findByOrderId(order.getId())).hasSize(1);
+
+			awaitStatus(order.getId(), OutboxStatus.SENT);
+			assertThat(orderRepository.findById(order.getId()).orElseThrow().getWhatsappBillSent()).isTrue();
+		}
+
+		@Test
+		void repeatedRequestsQueueOneMessage() {
+			CustomerOrder order = completedOrder();
+
+			orderService.sendWhatsAppBill(order.getId());
+			orderService.sendWhatsAppBill(order.getId());
+
+			assertThat(outboxRepository.findByOrderId(order.getId())).hasSize(1);
+		}
+
+		@Test
+		void onlyExpiredLeasesAreReclaimed() {
+			CustomerOrder abandoned = completedOrder();
+			CustomerOrder leased = completedOrder();
+			inFlight(abandoned, LocalDateTime.now().minusSeconds(1));
+			inFlight(leased, LocalDateTime.now().plusMinutes(5));
+
+			awaitStatus(abandoned.getId(), OutboxStatus.SENT);
+
+			assertThat(outboxRepository.findByOrderId(leased.getId()).get(0).getStatus())
+					.isEqualTo(OutboxStatus.IN_FLIGHT);
+		}
+
+		private void inFlight(CustomerOrder order, LocalDateTime claimedUntil) {
+			outboxRepository.save(WhatsAppOutboxMessage.builder()
+					.orderId(order.getId())
+					.phone(order.getCustomerPhone())
+					.message("Bill for order " + order.getId())
+					.status(OutboxStatus.IN_FLIGHT)
+					.claimedUntil(claimedUntil)
+					.build());
+		}
+	}
+
+	@Nested
+	@SpringBootTest(properties = {
+			"spring.datasource.url=jdbc:h2:mem:outbox-failing;DB_CLOSE_DELAY=-1",
+			"whatsapp.provider=stub",
+			"whatsapp.stub.latency-ms=0",
+			"whatsapp.stub.failure-rate=1",
+			"whatsapp.outbox.max-attempts=3",
+			"whatsapp.outbox.backoff-initial-ms=10",
+			"whatsapp.outbox.poll-interval-ms=20" })
+	@ActiveProfiles("test")
+	class Failing extends OutboxFixture {
+
+		@Test
+		void messageIsDeadLetteredAfterMaxAttempts() {
+			CustomerOrder order = completedOrder();
+
+			orderService.sendWhatsAppBill(order.getId());
+
+			WhatsAppOutboxMessage message = awaitStatus(order.getId(), OutboxStatus.DEAD);
+			assertThat(message.getAttempts()).isEqualTo(3);
+			assertThat(message.getLastError()).contains("rejected");
+			assertThat(orderRepository.findById(order.getId()).orElseThrow().getWhatsappBillSent()).isFalse();
+		}
+	}
+
+	abstract static class OutboxFixture {
+
+		@Autowired
+		OrderService orderService;
+
+		@Autowired
+		CustomerOrderRepository orderRepository;
+
+		@Autowired
+		WhatsAppOutboxRepository outboxRepository;
+
+		@Autowired
+		WhatsAppOutboxDispatcher dispatcher;
+
+		CustomerOrder completedOrder() {
+			return orderRepository.save(CustomerOrder.builder()
+					.orderType(OrderType.TAKEAWAY)
+					.status(OrderStatus.COMPLETED)
+					.customerPhone("+919800000000")
+					.totalAmountPaise(0L)
+					.build());
+		}
+
+		WhatsAppOutboxMessage awaitStatus(Long orderId, OutboxStatus status) {
+			await(() -> {
+				dispatcher.poll();
+				List<WhatsAppOutboxMessage> messages = outboxRepository.findByOrderId(orderId);
+				return messages.size() == 1 && messages.get(0).getStatus() == status;
+			});
+			return outboxRepository.findByOrderId(orderId).get(0);
+		}
+
+		private static void await(BooleanSupplier condition) {
+			Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+			while (!condition.getAsBoolean()) {
+				assertThat(Instant.now()).as("timed out waiting for outbox").isBefore(deadline);
+				try {
+					Thread.sleep(25);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+	}
+}
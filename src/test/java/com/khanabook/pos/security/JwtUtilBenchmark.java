@@ -0,0 +1,74 @@
+package com.khanabook.pos.security;
+
+import com.khanabook.pos.BenchmarkFixtures;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What JwtRequestFilter pays per authenticated request: the old path (key decoded and parser
+ * built per call, token parsed three times), a single parse with the held parser, and a hit in
+ * the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+	private JwtUtil jwtUtil;
+	private UserDetails cashier;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = new JwtUtil(BenchmarkFixtures.JWT_SECRET, 3_600_000L, 10_000, 60_000, false,
+				new SimpleMeterRegistry());
+		cashier = User.withUsername("cashier1").password("unused").roles("CASHIER").build();
+		token = jwtUtil.generateToken(cashier);
+	}
+
+	@Benchmark
+	public boolean parsePerCall() {
+		String username = legacyClaims(token).getSubject();
+		return username.equals(cashier.getUsername()) && username.equals(legacyClaims(token).getSubject())
+				&& !legacyClaims(token).getExpiration().before(new Date());
+	}
+
+	@Benchmark
+	public boolean parseOnce() {
+		return jwtUtil.validateToken(jwtUtil.parse(token), cashier);
+	}
+
+	@Benchmark
+	public boolean verifyCached() {
+		return jwtUtil.validateToken(jwtUtil.verify(token), cashier);
+	}
+
+	private Claims legacyClaims(String token) {
+		return Jwts.parserBuilder()
+				.setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(BenchmarkFixtures.JWT_SECRET)))
+				.build()
+				.parseClaimsJws(token)
+				.getBody();
+	}
+}
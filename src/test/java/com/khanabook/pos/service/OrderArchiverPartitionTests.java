@@ -0,0 +1,37 @@
+package com.khanabook.pos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderArchiverPartitionTests {
+
+	private static final List<String> MIGRATED = List.of("p_old", "p202610", "p202611", "p202612", "pmax");
+
+	@Test
+	void splitsCatchAllIntoEachMissingMonth() {
+		assertThat(OrderArchiver.splitCatchAll("archived_orders", MIGRATED, YearMonth.of(2027, 2)))
+				.contains("ALTER TABLE archived_orders REORGANIZE PARTITION pmax INTO ("
+						+ "PARTITION p202701 VALUES LESS THAN (202702), "
+						+ "PARTITION p202702 VALUES LESS THAN (202703), "
+						+ "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+	}
+
+	@Test
+	void nothingToDoOnceTheMonthExists() {
+		assertThat(OrderArchiver.splitCatchAll("archived_orders", MIGRATED, YearMonth.of(2026, 12))).isEmpty();
+		assertThat(OrderArchiver.splitCatchAll("archived_orders", MIGRATED, YearMonth.of(2026, 11))).isEmpty();
+	}
+
+	@Test
+	void leavesTablesWithoutTheMigratedLayoutAlone() {
+		assertThat(OrderArchiver.splitCatchAll("archived_orders", List.of(), YearMonth.of(2027, 2))).isEmpty();
+		assertThat(OrderArchiver.splitCatchAll("archived_orders", List.of("p202610", "p202611"), YearMonth.of(2027, 2)))
+				.isEmpty();
+		assertThat(OrderArchiver.splitCatchAll("archived_orders", List.of("p_old", "pmax"), YearMonth.of(2027, 2)))
+				.isEmpty();
+	}
+}